@@ -0,0 +1,135 @@
+package bui.dev.rhymcaffer.popularity;
+
+import bui.dev.rhymcaffer.RhymcafferApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Timeout;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A full PopularityEngine.recompute over a synthetic catalog in a file-backed H2 database, under
+ * the 512 MB heap the Dockerfile gives the service: counting the tracks with signals, scanning a
+ * month of play_events page by page, rolling tracks up to albums and artists and writing every
+ * changed popularity back in batches. Plays are skewed so a few tracks take most of them. Each
+ * iteration starts from unset popularity, so every row is rewritten as on the first night.
+ * Seeding ten million tracks takes several minutes; run it alone with
+ * -PjmhIncludes=PopularityRecompute, or from the jmhJar with -p tracks=100000 for a quick check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+// JMH interrupts an iteration after ten minutes by default, and seeding runs inside the first one;
+// an interrupt closes H2's file channel.
+@Timeout(time = 2, timeUnit = TimeUnit.HOURS)
+public class PopularityRecomputeBenchmark {
+
+    private static final long MONTH_MS = Duration.ofDays(30).toMillis();
+    private static final int USERS = 1_000;
+    private static final long CHUNK = 1_000_000;
+
+    @Param("10000000")
+    public int tracks;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private PopularityEngine popularityEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("popularity-bench");
+        context = new SpringApplicationBuilder(RhymcafferApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("db") + ";CACHE_SIZE=65536",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--jwt.secret=benchmark-secret-benchmark-secret-0123456789",
+                        "--jwt.expiration=86400000",
+                        "--jwt.refresh-expiration=604800000",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.hibernate.engine.jdbc=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.org.springframework.jdbc=WARN",
+                        "--logging.level.com.zaxxer.hikari=WARN",
+                        "--logging.level.bui.dev.rhymcaffer=WARN");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        popularityEngine = context.getBean(PopularityEngine.class);
+        seed();
+    }
+
+    @Setup(Level.Iteration)
+    public void unsetPopularity() {
+        for (String table : new String[] { "tracks", "albums", "artists" }) {
+            jdbcTemplate.update("UPDATE " + table + " SET popularity = NULL");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void recompute() {
+        popularityEngine.recompute();
+    }
+
+    // Generated inside H2 so the rows never pass through this heap.
+    private void seed() {
+        int albums = (tracks - 1) / 12 + 1;
+        int artists = (tracks - 1) / 60 + 1;
+        jdbcTemplate.update("INSERT INTO artists (id, name, created_at, updated_at, version) "
+                + "SELECT X, 'artist ' || X, NOW(), NOW(), 0 FROM SYSTEM_RANGE(1, ?)", artists);
+        jdbcTemplate.update("INSERT INTO albums (id, name, created_at, updated_at, version) "
+                + "SELECT X, 'album ' || X, NOW(), NOW(), 0 FROM SYSTEM_RANGE(1, ?)", albums);
+        jdbcTemplate.update("INSERT INTO tracks (id, name, album_id, created_at, updated_at, version) "
+                + "SELECT X, 'track ' || X, (X - 1) / 12 + 1, NOW(), NOW(), 0 FROM SYSTEM_RANGE(1, ?)", tracks);
+        jdbcTemplate.update("INSERT INTO track_artists (track_id, artist_id) "
+                + "SELECT X, (X - 1) / 60 + 1 FROM SYSTEM_RANGE(1, ?)", tracks);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password) "
+                + "SELECT X, 'user' || X, 'user' || X || '@example.com', 'secret' FROM SYSTEM_RANGE(1, ?)", USERS);
+        // Every other track is saved once.
+        jdbcTemplate.update("INSERT INTO user_saved_tracks (track_id, user_id) "
+                + "SELECT X * 2, MOD(X, ?) + 1 FROM SYSTEM_RANGE(1, ?)", USERS, tracks / 2);
+        // Three plays per track over the last month, cubed so low ids take most of them. Inserted a
+        // million at a time to keep each transaction's undo log small.
+        long plays = 3L * tracks;
+        for (long from = 1; from <= plays; from += CHUNK) {
+            jdbcTemplate.update("INSERT INTO play_events (user_id, track_id, played_at) "
+                    + "SELECT MOD(X, ?) + 1, 1 + CAST(? * POWER(RAND(), 3) AS BIGINT), "
+                    + "DATEADD('MILLISECOND', -CAST(RAND() * ? AS BIGINT), NOW()) FROM SYSTEM_RANGE(?, ?)",
+                    USERS, tracks - 1, MONTH_MS, from, Math.min(plays, from + CHUNK - 1));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package bui.dev.rhymcaffer.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token:
+ * the former filter path (three parses, each rebuilding key and parser)
+ * against a single verification and a claims-cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtService cachingJwtService;
+    private JwtService uncachedJwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingJwtService = new JwtService(SECRET, 3_600_000L, 604_800_000L, 10_000L);
+        uncachedJwtService = new JwtService(SECRET, 3_600_000L, 604_800_000L, 0L);
+        userDetails = User.withUsername("benchmark")
+                .password("unused")
+                .authorities("ROLE_USER")
+                .build();
+        token = cachingJwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyParse().getSubject();
+        boolean sameUser = legacyParse().getSubject().equals(username);
+        return sameUser && !legacyParse().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        return uncachedJwtService.isTokenValid(token, userDetails);
+    }
+
+    @Benchmark
+    public boolean cachedClaims() {
+        return cachingJwtService.isTokenValid(token, userDetails);
+    }
+
+    private Claims legacyParse() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,175 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.RhymcafferApplication;
+import bui.dev.rhymcaffer.dto.response.AlbumResponse;
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.TrackListResponse;
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.repository.AlbumRepository;
+import bui.dev.rhymcaffer.repository.TrackRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * One 200-row page of /api/tracks and /api/albums against an in-memory H2 catalog:
+ * hydrating managed entities and copying them into the response, as the endpoints
+ * used to, against the constructor projections they use now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogListBenchmark {
+
+    private static final int ROWS = 5_000;
+    private static final int PAGE = 200;
+    private static final long AFTER = 1_000L;
+
+    private ConfigurableApplicationContext context;
+    private TrackRepository trackRepository;
+    private AlbumRepository albumRepository;
+    private TrackService trackService;
+    private AlbumService albumService;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RhymcafferApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:catalog-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--jwt.secret=benchmark-secret-benchmark-secret-0123456789",
+                        "--jwt.expiration=86400000",
+                        "--jwt.refresh-expiration=604800000",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.hibernate.engine.jdbc=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.org.springframework.jdbc=WARN",
+                        "--logging.level.com.zaxxer.hikari=WARN",
+                        "--logging.level.bui.dev.rhymcaffer=WARN");
+        trackRepository = context.getBean(TrackRepository.class);
+        albumRepository = context.getBean(AlbumRepository.class);
+        trackService = context.getBean(TrackService.class);
+        albumService = context.getBean(AlbumService.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TrackListResponse> tracksViaEntities() {
+        return readOnly.execute(status -> trackRepository
+                .findByIdGreaterThanOrderByIdAsc(AFTER, Pagination.probe(PAGE)).stream()
+                .limit(PAGE)
+                .map(CatalogListBenchmark::toListResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public BaseResponse<List<TrackListResponse>> tracksViaProjection() {
+        return trackService.getAllTracks(AFTER, PAGE);
+    }
+
+    @Benchmark
+    public List<AlbumResponse> albumsViaEntities() {
+        return readOnly.execute(status -> albumRepository
+                .findByIdGreaterThanOrderByIdAsc(AFTER, Pagination.probe(PAGE)).stream()
+                .limit(PAGE)
+                .map(CatalogListBenchmark::toAlbumResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public BaseResponse<List<AlbumResponse>> albumsViaProjection() {
+        return albumService.getAllAlbums(AFTER, PAGE);
+    }
+
+    private static TrackListResponse toListResponse(Track track) {
+        return TrackListResponse.builder()
+                .id(track.getId())
+                .name(track.getName())
+                .imageUrl(track.getImageUrl())
+                .durationMs(track.getDurationMs())
+                .popularity(track.getPopularity())
+                .trackUrl(track.getTrackUrl())
+                .trackNumber(track.getTrackNumber())
+                .explicit(track.getExplicit())
+                .isrc(track.getIsrc())
+                .albumId(track.getAlbum() != null ? track.getAlbum().getId() : null)
+                .createdAt(track.getCreatedAt())
+                .updatedAt(track.getUpdatedAt())
+                .build();
+    }
+
+    private static AlbumResponse toAlbumResponse(Album album) {
+        return AlbumResponse.builder()
+                .id(album.getId())
+                .name(album.getName())
+                .imageUrl(album.getImageUrl())
+                .description(album.getDescription())
+                .popularity(album.getPopularity())
+                .releaseDate(ReleaseDatePrecision.format(album.getReleaseDate(), album.getReleaseDatePrecision()))
+                .releaseDatePrecision(album.getReleaseDatePrecision())
+                .albumType(album.getAlbumType())
+                .artistIds(album.getArtists().stream()
+                        .map(artist -> artist.getId())
+                        .collect(Collectors.toSet()))
+                .createdAt(album.getCreatedAt())
+                .updatedAt(album.getUpdatedAt())
+                .build();
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbc.batchUpdate("INSERT INTO artists (id, name, created_at, updated_at, version) VALUES (?, ?, ?, ?, 0)",
+                rows(i -> new Object[] { i, "artist " + i, now, now }));
+        jdbc.batchUpdate("INSERT INTO albums (id, name, description, popularity, release_date, album_type, "
+                + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                rows(i -> new Object[] { i, "album " + i, "description " + i, (int) (i % 100),
+                        "2024-01-01", "album", now, now }));
+        jdbc.batchUpdate("INSERT INTO album_artists (album_id, artist_id) VALUES (?, ?)",
+                rows(i -> new Object[] { i, i }));
+        jdbc.batchUpdate("INSERT INTO tracks (id, name, image_url, duration_ms, popularity, track_url, "
+                + "track_number, explicit, isrc, album_id, created_at, updated_at, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                rows(i -> new Object[] { i, "track " + i, "https://img/" + i, 180_000, (int) (i % 100),
+                        "https://audio/" + i, "1", false, "ISRC" + i, i, now, now }));
+    }
+
+    private static List<Object[]> rows(LongFunction<Object[]> row) {
+        return LongStream.rangeClosed(1, ROWS).mapToObj(row).toList();
+    }
+}
@@ -0,0 +1,139 @@
+package bui.dev.rhymcaffer.cache;
+
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.CacheStatsResponse;
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.util.AfterCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Second-level cache housekeeping for the catalog. Hibernate keeps owned state in sync by
+ * itself; what it cannot see are inverse collections (Album.tracks, Artist.tracks,
+ * Artist.albums) and rows written around the session, so services evict those here.
+ */
+@Component
+public class CatalogCache {
+
+    public static final String TRACK_ARTISTS = Track.class.getName() + ".artists";
+    public static final String ALBUM_ARTISTS = Album.class.getName() + ".artists";
+    public static final String ALBUM_TRACKS = Album.class.getName() + ".tracks";
+    public static final String ARTIST_TRACKS = Artist.class.getName() + ".tracks";
+    public static final String ARTIST_ALBUMS = Artist.class.getName() + ".albums";
+
+    private final SessionFactory sessionFactory;
+    private final EntityManager entityManager;
+
+    public CatalogCache(EntityManagerFactory entityManagerFactory, EntityManager entityManager) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.entityManager = entityManager;
+    }
+
+    // Loads rows by id in the given order, taking what it can from the second-level cache and
+    // reading the rest in one batch; ids without a row are dropped.
+    public <T> List<T> load(Class<T> type, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(type)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public void evictAlbumTracks(Long albumId) {
+        if (albumId != null) {
+            evict(ALBUM_TRACKS, List.of(albumId));
+        }
+    }
+
+    public void evictAlbumTracks(Collection<Long> albumIds) {
+        evict(ALBUM_TRACKS, albumIds);
+    }
+
+    public void evictArtistTracks(Collection<Long> artistIds) {
+        evict(ARTIST_TRACKS, artistIds);
+    }
+
+    public void evictArtistAlbums(Collection<Long> artistIds) {
+        evict(ARTIST_ALBUMS, artistIds);
+    }
+
+    // For writes whose reach is unbounded, e.g. deleting an artist that appears on many tracks.
+    public void evictRegions(String... roles) {
+        AfterCommit.run(() -> Arrays.stream(roles).forEach(cache()::evictCollectionData));
+    }
+
+    // For entity rows rewritten with JDBC, e.g. popularity.
+    public void evictEntities(Class<?> type, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            AfterCommit.run(() -> ids.forEach(id -> cache().evictEntityData(type, id)));
+        }
+    }
+
+    public BaseResponse<CacheStatsResponse> getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheStatsResponse.Region> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(name -> toRegion(name, statistics.getCacheRegionStatistics(name)))
+                .filter(Objects::nonNull)
+                .toList();
+        CacheStatsResponse response = CacheStatsResponse.builder()
+                .hitCount(statistics.getSecondLevelCacheHitCount())
+                .missCount(statistics.getSecondLevelCacheMissCount())
+                .putCount(statistics.getSecondLevelCachePutCount())
+                .queryCacheHitCount(statistics.getQueryCacheHitCount())
+                .queryCacheMissCount(statistics.getQueryCacheMissCount())
+                .regions(regions)
+                .build();
+        return BaseResponse.<CacheStatsResponse>builder()
+                .statusCode(200)
+                .isSuccess(true)
+                .message("Success")
+                .data(response)
+                .build();
+    }
+
+    private static CacheStatsResponse.Region toRegion(String name, CacheRegionStatistics region) {
+        if (region == null) {
+            return null;
+        }
+        return CacheStatsResponse.Region.builder()
+                .name(name)
+                .hitCount(region.getHitCount())
+                .missCount(region.getMissCount())
+                .putCount(region.getPutCount())
+                .elementCount(region.getElementCountInMemory())
+                .build();
+    }
+
+    private void evict(String role, Collection<Long> ownerIds) {
+        if (ownerIds == null || ownerIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = ownerIds.stream().filter(Objects::nonNull).distinct().toList();
+        AfterCommit.run(() -> ids.forEach(id -> cache().evictCollectionData(role, id)));
+    }
+
+    private Cache cache() {
+        return sessionFactory.getCache();
+    }
+}
@@ -0,0 +1,136 @@
+package bui.dev.rhymcaffer.cache;
+
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.repository.AlbumRepository;
+import bui.dev.rhymcaffer.repository.projection.AlbumRow;
+import bui.dev.rhymcaffer.repository.projection.IdPair;
+import bui.dev.rhymcaffer.service.Pagination;
+import bui.dev.rhymcaffer.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * The newest released albums, kept in memory for the new-releases shelf. Album writes drop the
+ * snapshot once they commit and the next read reloads it; it is also reloaded when the day
+ * changes, since albums dated today become released then. Pages past the snapshot go to the
+ * database. A market's shelf is the same ordering over the albums its listeners played or saved
+ * last week, with its own snapshot that is also reloaded whenever the market activity is.
+ */
+@Component
+public class NewReleases {
+
+    public record Release(AlbumRow album, Set<Long> artistIds) {
+    }
+
+    // albumIds is the market's album set the snapshot was built from, or null worldwide.
+    private record Snapshot(LocalDate day, Set<Long> albumIds, List<Release> releases, boolean complete) {
+    }
+
+    private static final Comparator<AlbumRow> NEWEST_FIRST = Comparator.comparing(AlbumRow::releaseDate)
+            .thenComparing(AlbumRow::id).reversed();
+    private static final int ID_CHUNK = 1_000;
+
+    private final AlbumRepository albumRepository;
+    private final Markets markets;
+    private final int size;
+    // Bumped on every invalidation, so a load that raced with a write does not publish stale rows.
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private final Map<String, Snapshot> marketSnapshots = new ConcurrentHashMap<>();
+
+    public NewReleases(AlbumRepository albumRepository,
+            Markets markets,
+            @Value("${albums.new-releases.snapshot-size:200}") int size) {
+        this.albumRepository = albumRepository;
+        this.markets = markets;
+        this.size = size;
+    }
+
+    public List<Release> read(int offset, int count) {
+        return read(null, offset, count);
+    }
+
+    public List<Release> read(String market, int offset, int count) {
+        LocalDate today = LocalDate.now();
+        String partition = Markets.normalize(market);
+        Set<Long> albumIds = partition == null ? null : markets.get(partition).albumIds();
+        if (albumIds != null && albumIds.isEmpty()) {
+            // Includes every market Markets does not hold, which is therefore never cached.
+            return List.of();
+        }
+        Snapshot current = current(today, partition, albumIds);
+        if (current.complete() || offset + count <= current.releases().size()) {
+            List<Release> releases = current.releases();
+            return releases.subList(Math.min(offset, releases.size()), Math.min(offset + count, releases.size()));
+        }
+        return load(today, albumIds, offset, count);
+    }
+
+    public void invalidate() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            snapshot = null;
+            marketSnapshots.clear();
+        });
+    }
+
+    private Snapshot current(LocalDate today, String market, Set<Long> albumIds) {
+        Snapshot current = market == null ? snapshot : marketSnapshots.get(market);
+        if (current != null && current.day().equals(today) && current.albumIds() == albumIds) {
+            return current;
+        }
+        long seen = generation.get();
+        List<Release> releases = load(today, albumIds, 0, size + 1);
+        boolean complete = releases.size() <= size;
+        Snapshot loaded = new Snapshot(today, albumIds, List.copyOf(Pagination.page(releases, size)), complete);
+        if (generation.get() == seen) {
+            if (market == null) {
+                snapshot = loaded;
+            } else {
+                // Markets dropped or rebuilt since their snapshot was taken go with it, so the
+                // map never holds more than the markets currently loaded.
+                marketSnapshots.entrySet().removeIf(entry ->
+                        markets.get(entry.getKey()).albumIds() != entry.getValue().albumIds());
+                marketSnapshots.put(market, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private List<Release> load(LocalDate today, Set<Long> albumIds, int offset, int count) {
+        List<AlbumRow> rows = albumIds == null
+                ? albumRepository.findReleasedRows(today, Pagination.window(offset, count))
+                : findReleasedRowsIn(today, albumIds, offset, count);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Set<Long>> artistIds = albumRepository.findArtistIdPairs(rows.stream().map(AlbumRow::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(IdPair::ownerId,
+                        Collectors.mapping(IdPair::targetId, Collectors.toUnmodifiableSet())));
+        return rows.stream()
+                .map(row -> new Release(row, artistIds.getOrDefault(row.id(), Set.of())))
+                .toList();
+    }
+
+    // The newest rows of each chunk of ids, merged; only the first offset + count can matter.
+    private List<AlbumRow> findReleasedRowsIn(LocalDate today, Set<Long> albumIds, int offset, int count) {
+        List<Long> ids = List.copyOf(albumIds);
+        List<AlbumRow> rows = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK, ids.size()));
+            rows.addAll(albumRepository.findReleasedRowsIn(today, chunk, Pagination.window(0, offset + count)));
+        }
+        return rows.stream().sorted(NEWEST_FIRST).skip(offset).limit(count).toList();
+    }
+}
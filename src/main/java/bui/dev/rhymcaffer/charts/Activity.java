@@ -0,0 +1,80 @@
+package bui.dev.rhymcaffer.charts;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Play and save counts per track over a window of play_events and save_events, either for
+// everyone or split by the listener's country.
+final class Activity {
+
+    record Score(long trackId, long plays, long saves) {
+
+        // Weighted like the popularity signals: a save counts as five plays.
+        long value() {
+            return plays + 5 * saves;
+        }
+    }
+
+    static final Comparator<Score> RANK = Comparator.comparingLong(Score::value).reversed()
+            .thenComparingLong(Score::trackId);
+
+    private static final String TOP = "SELECT a.track_id, SUM(a.plays), SUM(a.saves) FROM ("
+            + "SELECT track_id, COUNT(*) AS plays, 0 AS saves FROM play_events "
+            + "WHERE played_at >= ? AND played_at < ? GROUP BY track_id "
+            + "UNION ALL "
+            + "SELECT track_id, 0, COUNT(*) FROM save_events "
+            + "WHERE saved_at >= ? AND saved_at < ? GROUP BY track_id"
+            + ") a JOIN tracks t ON t.id = a.track_id "
+            + "GROUP BY a.track_id ORDER BY SUM(a.plays) + 5 * SUM(a.saves) DESC, a.track_id LIMIT ?";
+    // Countries are compared trimmed and upper-cased; rows from before registration checked them
+    // may hold anything, so topByMarket keeps only real country codes.
+    private static final String BY_MARKET = "SELECT a.market, a.track_id, SUM(a.plays), SUM(a.saves) FROM ("
+            + "SELECT UPPER(TRIM(u.country)) AS market, p.track_id, COUNT(*) AS plays, 0 AS saves "
+            + "FROM play_events p JOIN users u ON u.id = p.user_id "
+            + "WHERE p.played_at >= ? AND p.played_at < ? AND TRIM(u.country) <> '' "
+            + "GROUP BY UPPER(TRIM(u.country)), p.track_id "
+            + "UNION ALL "
+            + "SELECT UPPER(TRIM(u.country)), s.track_id, 0, COUNT(*) "
+            + "FROM save_events s JOIN users u ON u.id = s.user_id "
+            + "WHERE s.saved_at >= ? AND s.saved_at < ? AND TRIM(u.country) <> '' "
+            + "GROUP BY UPPER(TRIM(u.country)), s.track_id"
+            + ") a JOIN tracks t ON t.id = a.track_id "
+            + "GROUP BY a.market, a.track_id";
+
+    private Activity() {
+    }
+
+    static List<Score> top(JdbcTemplate jdbcTemplate, LocalDateTime from, LocalDateTime to, int limit) {
+        return jdbcTemplate.query(TOP, (row, index) -> new Score(row.getLong(1), row.getLong(2), row.getLong(3)),
+                Timestamp.valueOf(from), Timestamp.valueOf(to), Timestamp.valueOf(from), Timestamp.valueOf(to), limit);
+    }
+
+    // The best `limit` tracks of each country, ranked; a bounded heap per country keeps
+    // memory to countries times limit however many tracks were played.
+    static Map<String, List<Score>> topByMarket(JdbcTemplate jdbcTemplate, LocalDateTime from, LocalDateTime to,
+            int limit) {
+        Map<String, PriorityQueue<Score>> heaps = new HashMap<>();
+        jdbcTemplate.query(BY_MARKET, (RowCallbackHandler) row -> {
+            if (!Markets.isCountry(row.getString(1))) {
+                return;
+            }
+            PriorityQueue<Score> heap = heaps.computeIfAbsent(row.getString(1),
+                    market -> new PriorityQueue<>(RANK.reversed()));
+            heap.add(new Score(row.getLong(2), row.getLong(3), row.getLong(4)));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to), Timestamp.valueOf(from), Timestamp.valueOf(to));
+        Map<String, List<Score>> ranked = new HashMap<>();
+        heaps.forEach((market, heap) -> ranked.put(market, heap.stream().sorted(RANK).toList()));
+        return ranked;
+    }
+}
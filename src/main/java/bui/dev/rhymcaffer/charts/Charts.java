@@ -0,0 +1,224 @@
+package bui.dev.rhymcaffer.charts;
+
+import bui.dev.rhymcaffer.model.Chart;
+import bui.dev.rhymcaffer.model.ChartEntry;
+import bui.dev.rhymcaffer.model.ChartSnapshot;
+import bui.dev.rhymcaffer.repository.ChartEntryRepository;
+import bui.dev.rhymcaffer.repository.ChartSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes the daily and weekly top-track charts, worldwide and per listener country, and
+ * serves them from memory. Shortly after midnight each chart is ranked once from the
+ * play_events and save_events in its window and stored as immutable snapshots for that date;
+ * a chart that already exists for the date is left alone. Since snapshots never change, a
+ * loaded one is cached until it ages out of the cache, and reads of the current chart never
+ * touch the database once it is loaded.
+ */
+@Component
+@Slf4j
+public class Charts {
+
+    public record Entry(int position, long trackId, long plays, long saves) {
+    }
+
+    public record Snapshot(Chart chart, String market, LocalDate date, LocalDateTime windowStart,
+            LocalDateTime windowEnd, List<Entry> entries) {
+    }
+
+    // A null date stands for the latest chart.
+    private record Key(Chart chart, String market, LocalDate date) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChartSnapshotRepository snapshotRepository;
+    private final ChartEntryRepository entryRepository;
+    private final Markets markets;
+    private final int size;
+    private final Map<Key, Snapshot> latest = new ConcurrentHashMap<>();
+    private final Map<Key, Snapshot> history;
+
+    public Charts(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ChartSnapshotRepository snapshotRepository,
+            ChartEntryRepository entryRepository,
+            Markets markets,
+            @Value("${charts.size:50}") int size,
+            @Value("${charts.history-cache-size:64}") int historyCacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotRepository = snapshotRepository;
+        this.entryRepository = entryRepository;
+        this.markets = markets;
+        this.size = size;
+        this.history = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Snapshot> eldest) {
+                return size() > historyCacheSize;
+            }
+        });
+    }
+
+    public Optional<Snapshot> latest(Chart chart, String market) {
+        Snapshot current = latest.get(new Key(chart, market, null));
+        if (current != null) {
+            return Optional.of(current);
+        }
+        Optional<Snapshot> loaded = snapshotRepository.findFirstByChartAndMarketOrderByChartDateDesc(chart, market)
+                .map(this::load);
+        loaded.ifPresent(this::publishLatest);
+        return loaded;
+    }
+
+    public Optional<Snapshot> get(Chart chart, String market, LocalDate date) {
+        Snapshot current = latest.get(new Key(chart, market, null));
+        if (current != null && current.date().equals(date)) {
+            return Optional.of(current);
+        }
+        Key key = new Key(chart, market, date);
+        Snapshot cached = history.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Snapshot> loaded = snapshotRepository.findByChartAndMarketAndChartDate(chart, market, date)
+                .map(this::load);
+        loaded.ifPresent(snapshot -> history.put(key, snapshot));
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${charts.build-cron:0 5 0 * * *}")
+    public void build() {
+        // Markets covers the week today's weekly chart is ranked over, so it takes that grouping
+        // rather than running the same one again.
+        Map<String, List<Activity.Score>> weekly = publish(LocalDate.now());
+        if (weekly != null) {
+            markets.load(weekly);
+        } else {
+            markets.reload();
+        }
+    }
+
+    public void build(LocalDate date) {
+        publish(date);
+    }
+
+    // The worldwide chart and every country's are published together, so the worldwide one
+    // standing for the date means all of them do. Returns the per-country grouping of the
+    // weekly window if this call ranked it, deep enough for Markets too.
+    private synchronized Map<String, List<Activity.Score>> publish(LocalDate date) {
+        Map<String, List<Activity.Score>> weekly = null;
+        for (Chart chart : Chart.values()) {
+            if (snapshotRepository.existsByChartAndMarketAndChartDate(chart, Markets.GLOBAL, date)) {
+                publishStored(chart, date);
+                continue;
+            }
+            LocalDateTime windowEnd = date.atStartOfDay();
+            Map<String, List<Activity.Score>> byMarket = Activity.topByMarket(jdbcTemplate,
+                    windowEnd.minusDays(chart.getDays()), windowEnd,
+                    chart == Chart.WEEKLY ? Math.max(size, markets.boardSize()) : size);
+            if (chart == Chart.WEEKLY) {
+                weekly = byMarket;
+            }
+            try {
+                transactionTemplate.execute(status -> rank(chart, date, byMarket)).forEach(this::publishLatest);
+            } catch (DataIntegrityViolationException e) {
+                log.info("{} chart for {} was published elsewhere", chart, date);
+                publishStored(chart, date);
+            }
+        }
+        return weekly;
+    }
+
+    // Another instance published the date, so the charts this one already holds are moved up
+    // to the stored snapshots; markets not held yet are loaded on their first read anyway.
+    private void publishStored(Chart chart, LocalDate date) {
+        List<String> markets = new ArrayList<>();
+        if (!latest.containsKey(new Key(chart, Markets.GLOBAL, null))) {
+            markets.add(Markets.GLOBAL);
+        }
+        latest.forEach((key, snapshot) -> {
+            if (key.chart() == chart && snapshot.date().isBefore(date)) {
+                markets.add(key.market());
+            }
+        });
+        for (String market : markets) {
+            snapshotRepository.findByChartAndMarketAndChartDate(chart, market, date)
+                    .map(this::load)
+                    .ifPresent(this::publishLatest);
+        }
+    }
+
+    private List<Snapshot> rank(Chart chart, LocalDate date, Map<String, List<Activity.Score>> byMarket) {
+        long started = System.currentTimeMillis();
+        LocalDateTime windowEnd = date.atStartOfDay();
+        LocalDateTime windowStart = windowEnd.minusDays(chart.getDays());
+        List<Snapshot> snapshots = new ArrayList<>();
+        snapshots.add(save(chart, Markets.GLOBAL, date, windowStart, windowEnd,
+                Activity.top(jdbcTemplate, windowStart, windowEnd, size)));
+        byMarket.forEach((market, scores) -> snapshots.add(save(chart, market, date, windowStart, windowEnd,
+                scores.subList(0, Math.min(size, scores.size())))));
+        log.info("Published {} charts for {} in {} markets in {} ms", chart, date, snapshots.size() - 1,
+                System.currentTimeMillis() - started);
+        return snapshots;
+    }
+
+    private Snapshot save(Chart chart, String market, LocalDate date, LocalDateTime windowStart,
+            LocalDateTime windowEnd, List<Activity.Score> scores) {
+        List<Entry> entries = new ArrayList<>(scores.size());
+        for (Activity.Score score : scores) {
+            entries.add(new Entry(entries.size() + 1, score.trackId(), score.plays(), score.saves()));
+        }
+        ChartSnapshot snapshot = snapshotRepository.save(ChartSnapshot.builder()
+                .chart(chart)
+                .market(market)
+                .chartDate(date)
+                .windowStart(windowStart)
+                .windowEnd(windowEnd)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entryRepository.saveAll(entries.stream()
+                .map(entry -> ChartEntry.builder()
+                        .snapshotId(snapshot.getId())
+                        .position(entry.position())
+                        .trackId(entry.trackId())
+                        .plays(entry.plays())
+                        .saves(entry.saves())
+                        .build())
+                .toList());
+        return new Snapshot(chart, market, date, windowStart, windowEnd, List.copyOf(entries));
+    }
+
+    private Snapshot load(ChartSnapshot snapshot) {
+        List<Entry> entries = entryRepository.findBySnapshotIdOrderByPosition(snapshot.getId()).stream()
+                .map(entry -> new Entry(entry.getPosition(), entry.getTrackId(), entry.getPlays(), entry.getSaves()))
+                .toList();
+        return new Snapshot(snapshot.getChart(), snapshot.getMarket(), snapshot.getChartDate(),
+                snapshot.getWindowStart(), snapshot.getWindowEnd(), entries);
+    }
+
+    private void publishLatest(Snapshot snapshot) {
+        latest.merge(new Key(snapshot.chart(), snapshot.market(), null), snapshot,
+                (current, candidate) -> candidate.date().isAfter(current.date()) ? candidate : current);
+    }
+}
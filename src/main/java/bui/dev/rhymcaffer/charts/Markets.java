@@ -0,0 +1,140 @@
+package bui.dev.rhymcaffer.charts;
+
+import bui.dev.rhymcaffer.model.Chart;
+import bui.dev.rhymcaffer.popularity.Leaderboard;
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What listeners in each country played and saved over the last week: their most popular
+ * tracks and artists, and the albums they listened to. Loaded each night by {@link Charts}
+ * from the grouping it ranks the weekly chart with, and held per country, so the regional
+ * popular lists and new-releases shelf never group play_events by country on a request.
+ * Markets with no activity read as empty.
+ */
+@Component
+@Slf4j
+public class Markets {
+
+    // Six letters, so it cannot be mistaken for a country code.
+    public static final String GLOBAL = "GLOBAL";
+    private static final Set<String> COUNTRIES = Locale.getISOCountries(Locale.IsoCountryCode.PART1_ALPHA2);
+
+    public record Partition(Leaderboard tracks, Leaderboard artists, Set<Long> albumIds) {
+    }
+
+    private static final Partition EMPTY = new Partition(Leaderboard.of(List.of()), Leaderboard.of(List.of()),
+            Set.of());
+    private static final int ID_CHUNK = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    // Per country, and far below the worldwide leaderboard: every market holds its own boards, and
+    // the regional lists are read a page or two deep.
+    private final int size;
+    private volatile Map<String, Partition> partitions = Map.of();
+
+    public Markets(JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            @Value("${markets.board-size:300}") int size) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.size = size;
+    }
+
+    // Null for no market, i.e. worldwide; otherwise the ISO 3166-1 alpha-2 country code the
+    // activity is grouped by.
+    public static String normalize(String market) {
+        if (market == null || market.isBlank()) {
+            return null;
+        }
+        String country = market.trim().toUpperCase(Locale.ROOT);
+        if (!COUNTRIES.contains(country)) {
+            throw new IllegalArgumentException("Unknown market: " + market);
+        }
+        return country;
+    }
+
+    public static boolean isCountry(String value) {
+        return value != null && COUNTRIES.contains(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public Partition get(String market) {
+        return partitions.getOrDefault(normalize(market), EMPTY);
+    }
+
+    // How deep the weekly grouping handed to load has to rank each country.
+    int boardSize() {
+        return size;
+    }
+
+    // Groups the week itself, for when no weekly chart was ranked here to load from.
+    public void reload() {
+        LocalDateTime to = LocalDate.now().atStartOfDay();
+        load(Activity.topByMarket(jdbcTemplate, to.minusDays(Chart.WEEKLY.getDays()), to, size));
+    }
+
+    // The week's top tracks per country, ranked at least boardSize() deep.
+    void load(Map<String, List<Activity.Score>> ranked) {
+        long started = System.currentTimeMillis();
+        Map<String, List<Activity.Score>> byMarket = new HashMap<>();
+        ranked.forEach((market, scores) -> byMarket.put(market, scores.subList(0, Math.min(size, scores.size()))));
+        Set<Long> trackIds = new HashSet<>();
+        byMarket.values().forEach(scores -> scores.forEach(score -> trackIds.add(score.trackId())));
+        Map<Long, Long> albumOf = new HashMap<>();
+        Map<Long, List<Long>> artistsOf = new HashMap<>();
+        List<Long> ids = new ArrayList<>(trackIds);
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            Map<String, List<Long>> params = Map.of("ids", ids.subList(from, Math.min(from + ID_CHUNK, ids.size())));
+            namedJdbcTemplate.query("SELECT id, album_id FROM tracks WHERE album_id IS NOT NULL AND id IN (:ids)",
+                    params, (RowCallbackHandler) row -> albumOf.put(row.getLong(1), row.getLong(2)));
+            namedJdbcTemplate.query("SELECT track_id, artist_id FROM track_artists WHERE track_id IN (:ids)",
+                    params, (RowCallbackHandler) row -> artistsOf
+                            .computeIfAbsent(row.getLong(1), id -> new ArrayList<>()).add(row.getLong(2)));
+        }
+
+        Map<String, Partition> loaded = new HashMap<>();
+        byMarket.forEach((market, scores) -> {
+            List<IdPopularity> tracks = new ArrayList<>(scores.size());
+            Map<Long, Long> artistScores = new HashMap<>();
+            Set<Long> albumIds = new HashSet<>();
+            for (Activity.Score score : scores) {
+                tracks.add(new IdPopularity(score.trackId(), clamp(score.value())));
+                artistsOf.getOrDefault(score.trackId(), List.of())
+                        .forEach(artistId -> artistScores.merge(artistId, score.value(), Long::sum));
+                Long albumId = albumOf.get(score.trackId());
+                if (albumId != null) {
+                    albumIds.add(albumId);
+                }
+            }
+            List<IdPopularity> artists = artistScores.entrySet().stream()
+                    .map(entry -> new IdPopularity(entry.getKey(), clamp(entry.getValue())))
+                    .sorted(Leaderboard.RANK)
+                    .limit(size)
+                    .toList();
+            loaded.put(market, new Partition(Leaderboard.of(tracks), Leaderboard.of(artists), Set.copyOf(albumIds)));
+        });
+        partitions = Map.copyOf(loaded);
+        log.info("Loaded activity for {} markets in {} ms", loaded.size(), System.currentTimeMillis() - started);
+    }
+
+    // Market lists rank by weighted activity rather than the 0 to 100 popularity column.
+    private static int clamp(long value) {
+        return (int) Math.min(value, Integer.MAX_VALUE);
+    }
+}
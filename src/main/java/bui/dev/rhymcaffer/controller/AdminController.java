@@ -1,9 +1,12 @@
 package bui.dev.rhymcaffer.controller;
 
+import bui.dev.rhymcaffer.cache.CatalogCache;
 import bui.dev.rhymcaffer.dto.request.*;
 import bui.dev.rhymcaffer.dto.response.*;
+import bui.dev.rhymcaffer.plays.PlayIngestion;
 import bui.dev.rhymcaffer.security.UserDetailsImpl;
 import bui.dev.rhymcaffer.service.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +14,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -24,11 +28,16 @@ public class AdminController {
     private final AlbumService albumService;
     private final TrackService trackService;
     private final PlaylistService playlistService;
+    private final BulkImportService bulkImportService;
+    private final CatalogCache catalogCache;
+    private final PlayIngestion playIngestion;
 
     // User Management
     @GetMapping("/users")
-    public ResponseEntity<BaseResponse<List<UserResponse>>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<BaseResponse<List<UserResponse>>> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(userService.getAllUsers(after, limit));
     }
 
     @PostMapping("/users")
@@ -50,8 +59,10 @@ public class AdminController {
 
     // Artist Management
     @GetMapping("/artists")
-    public ResponseEntity<BaseResponse<List<ArtistResponse>>> getAllArtists() {
-        return ResponseEntity.ok(artistService.getAllArtists());
+    public ResponseEntity<BaseResponse<List<ArtistResponse>>> getAllArtists(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(artistService.getAllArtists(after, limit));
     }
 
     @PostMapping("/artists")
@@ -74,8 +85,10 @@ public class AdminController {
 
     // Album Management
     @GetMapping("/albums")
-    public ResponseEntity<BaseResponse<List<AlbumResponse>>> getAllAlbums() {
-        return ResponseEntity.ok(albumService.getAllAlbums());
+    public ResponseEntity<BaseResponse<List<AlbumResponse>>> getAllAlbums(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(albumService.getAllAlbums(after, limit));
     }
 
     @GetMapping("/albums/{id}")
@@ -95,8 +108,10 @@ public class AdminController {
 
     // Track Management
     @GetMapping("/tracks")
-    public ResponseEntity<BaseResponse<List<TrackListResponse>>> getAllTracks() {
-        return ResponseEntity.ok(trackService.getAllTracks());
+    public ResponseEntity<BaseResponse<List<TrackListResponse>>> getAllTracks(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(trackService.getAllTracks(after, limit));
     }
 
     @GetMapping("/tracks/{id}")
@@ -123,8 +138,10 @@ public class AdminController {
 
     // Playlist Management
     @GetMapping("/playlists")
-    public ResponseEntity<BaseResponse<List<PlaylistResponse>>> getAllPlaylists() {
-        return ResponseEntity.ok(playlistService.getAllPlaylists());
+    public ResponseEntity<BaseResponse<List<PlaylistResponse>>> getAllPlaylists(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(playlistService.getAllPlaylists(after, limit));
     }
 
     @PostMapping("/playlists")
@@ -140,22 +157,34 @@ public class AdminController {
         return ResponseEntity.ok(playlistService.deletePlaylist(id));
     }
 
-    // // Bulk Operations
-    // @PostMapping("/bulk/artists")
-    // public ResponseEntity<List<ArtistResponse>> createArtists(@Valid @RequestBody
-    // List<ArtistRequest> requests) {
-    // return ResponseEntity.ok(artistService.createArtists(requests));
-    // }
-
-    // @PostMapping("/bulk/albums")
-    // public ResponseEntity<List<AlbumResponse>> createAlbums(@Valid @RequestBody
-    // List<AlbumRequest> requests) {
-    // return ResponseEntity.ok(albumService.createAlbums(requests));
-    // }
-
-    // @PostMapping("/bulk/tracks")
-    // public ResponseEntity<List<TrackResponse>> createTracks(@Valid @RequestBody
-    // List<TrackRequest> requests) {
-    // return ResponseEntity.ok(trackService.createTracks(requests));
-    // }
-}
\ No newline at end of file
+    // Second-level cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<BaseResponse<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(catalogCache.getStats());
+    }
+
+    // Play ingestion buffer and writer
+    @GetMapping("/plays/stats")
+    public ResponseEntity<BaseResponse<PlayStatsResponse>> getPlayStats() {
+        return ResponseEntity.ok(playIngestion.getStats());
+    }
+
+    // Bulk Operations (one JSON object per line)
+    @PostMapping(value = "/bulk/artists", consumes = "application/x-ndjson")
+    public ResponseEntity<BaseResponse<BulkImportResponse>> importArtists(HttpServletRequest request)
+            throws IOException {
+        return ResponseEntity.ok(bulkImportService.importArtists(request.getInputStream()));
+    }
+
+    @PostMapping(value = "/bulk/albums", consumes = "application/x-ndjson")
+    public ResponseEntity<BaseResponse<BulkImportResponse>> importAlbums(HttpServletRequest request)
+            throws IOException {
+        return ResponseEntity.ok(bulkImportService.importAlbums(request.getInputStream()));
+    }
+
+    @PostMapping(value = "/bulk/tracks", consumes = "application/x-ndjson")
+    public ResponseEntity<BaseResponse<BulkImportResponse>> importTracks(HttpServletRequest request)
+            throws IOException {
+        return ResponseEntity.ok(bulkImportService.importTracks(request.getInputStream()));
+    }
+}
@@ -6,6 +6,8 @@ import bui.dev.rhymcaffer.dto.response.BaseResponse;
 import bui.dev.rhymcaffer.dto.response.TrackResponse;
 import bui.dev.rhymcaffer.security.UserDetailsImpl;
 import bui.dev.rhymcaffer.service.AlbumService;
+import bui.dev.rhymcaffer.web.CatalogVersions.Resource;
+import bui.dev.rhymcaffer.web.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -27,18 +29,28 @@ public class AlbumController {
         }
 
         @GetMapping("/{id}")
+        @ConditionalGet(Resource.ALBUM)
         public ResponseEntity<BaseResponse<AlbumResponse>> getAlbum(@PathVariable Long id) {
                 return ResponseEntity.ok(albumService.getAlbum(id));
         }
 
         @GetMapping
-        public ResponseEntity<BaseResponse<List<AlbumResponse>>> getAllAlbums() {
-                return ResponseEntity.ok(albumService.getAllAlbums());
+        public ResponseEntity<BaseResponse<List<AlbumResponse>>> getAllAlbums(
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(albumService.getAllAlbums(after, limit));
+        }
+
+        @GetMapping(params = "ids")
+        public ResponseEntity<BaseResponse<List<AlbumResponse>>> getAlbums(@RequestParam List<Long> ids) {
+                return ResponseEntity.ok(albumService.getAlbums(ids));
         }
 
         @GetMapping("/search")
-        public ResponseEntity<BaseResponse<List<AlbumResponse>>> searchAlbums(@RequestParam String name) {
-                return ResponseEntity.ok(albumService.searchAlbums(name));
+        public ResponseEntity<BaseResponse<List<AlbumResponse>>> searchAlbums(
+                        @RequestParam String name,
+                        @RequestParam(defaultValue = "20") int limit) {
+                return ResponseEntity.ok(albumService.searchAlbums(name, limit));
         }
 
         @GetMapping("/artist/{artistId}")
@@ -47,8 +59,19 @@ public class AlbumController {
         }
 
         @GetMapping("/new-releases")
-        public ResponseEntity<BaseResponse<List<AlbumResponse>>> getNewReleases(@RequestParam String date) {
-                return ResponseEntity.ok(albumService.getNewReleases(date));
+        public ResponseEntity<BaseResponse<List<AlbumResponse>>> getNewReleases(
+                        @RequestParam(required = false) String market,
+                        @RequestParam(defaultValue = "0") int offset,
+                        @RequestParam(defaultValue = "20") int limit) {
+                return ResponseEntity.ok(albumService.getNewReleases(market, offset, limit));
+        }
+
+        @GetMapping("/saved/contains")
+        public ResponseEntity<BaseResponse<List<Boolean>>> savedAlbumsContain(
+                        @RequestParam List<Long> ids,
+                        Authentication authentication) {
+                Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+                return ResponseEntity.ok(albumService.savedAlbumsContain(userId, ids));
         }
 
         @PostMapping("/{albumId}/save")
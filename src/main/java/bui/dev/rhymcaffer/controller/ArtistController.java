@@ -5,6 +5,8 @@ import bui.dev.rhymcaffer.dto.response.ArtistResponse;
 import bui.dev.rhymcaffer.dto.response.BaseResponse;
 import bui.dev.rhymcaffer.security.UserDetailsImpl;
 import bui.dev.rhymcaffer.service.ArtistService;
+import bui.dev.rhymcaffer.web.CatalogVersions.Resource;
+import bui.dev.rhymcaffer.web.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +28,7 @@ public class ArtistController {
         }
 
         @GetMapping("/{id}")
+        @ConditionalGet(Resource.ARTIST)
         public ResponseEntity<BaseResponse<ArtistResponse>> getArtist(
                         @PathVariable Long id,
                         @RequestParam(defaultValue = "false") boolean expandAlbums,
@@ -34,19 +37,41 @@ public class ArtistController {
         }
 
         @GetMapping
-        public ResponseEntity<BaseResponse<List<ArtistResponse>>> getAllArtists() {
-                return ResponseEntity.ok(artistService.getAllArtists());
+        public ResponseEntity<BaseResponse<List<ArtistResponse>>> getAllArtists(
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(artistService.getAllArtists(after, limit));
+        }
+
+        @GetMapping(params = "ids")
+        public ResponseEntity<BaseResponse<List<ArtistResponse>>> getArtists(
+                        @RequestParam List<Long> ids,
+                        @RequestParam(defaultValue = "false") boolean expandAlbums,
+                        @RequestParam(defaultValue = "false") boolean expandTracks) {
+                return ResponseEntity.ok(artistService.getArtists(ids, expandAlbums, expandTracks));
         }
 
         @GetMapping("/search")
-        public ResponseEntity<BaseResponse<List<ArtistResponse>>> searchArtists(@RequestParam String name) {
-                return ResponseEntity.ok(artistService.searchArtists(name));
+        public ResponseEntity<BaseResponse<List<ArtistResponse>>> searchArtists(
+                        @RequestParam String name,
+                        @RequestParam(defaultValue = "20") int limit) {
+                return ResponseEntity.ok(artistService.searchArtists(name, limit));
         }
 
         @GetMapping("/popular")
         public ResponseEntity<BaseResponse<List<ArtistResponse>>> getPopularArtists(
-                        @RequestParam(defaultValue = "0") int minPopularity) {
-                return ResponseEntity.ok(artistService.getPopularArtists(minPopularity));
+                        @RequestParam(required = false) String market,
+                        @RequestParam(required = false) String after,
+                        @RequestParam(defaultValue = "20") int limit) {
+                return ResponseEntity.ok(artistService.getPopularArtists(market, after, limit));
+        }
+
+        @GetMapping("/followed/contains")
+        public ResponseEntity<BaseResponse<List<Boolean>>> followedArtistsContain(
+                        @RequestParam List<Long> ids,
+                        Authentication authentication) {
+                Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+                return ResponseEntity.ok(artistService.followedArtistsContain(userId, ids));
         }
 
         @PostMapping("/{artistId}/follow")
@@ -0,0 +1,29 @@
+package bui.dev.rhymcaffer.controller;
+
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.ChartResponse;
+import bui.dev.rhymcaffer.service.ChartService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/charts")
+@RequiredArgsConstructor
+public class ChartController {
+
+    private final ChartService chartService;
+
+    // e.g. /api/charts/daily, /api/charts/daily?market=VN, or /api/charts/weekly?date=2024-03-04
+    // for a past chart
+    @GetMapping("/{chart}")
+    public ResponseEntity<BaseResponse<ChartResponse>> getChart(
+            @PathVariable String chart,
+            @RequestParam(required = false) String market,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(chartService.getChart(chart, market, date));
+    }
+}
@@ -0,0 +1,48 @@
+package bui.dev.rhymcaffer.controller;
+
+import bui.dev.rhymcaffer.dto.request.PlayBatchRequest;
+import bui.dev.rhymcaffer.dto.request.PlayRequest;
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.security.UserDetailsImpl;
+import bui.dev.rhymcaffer.service.PlayService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/plays")
+@RequiredArgsConstructor
+public class PlayController {
+
+    private final PlayService playService;
+
+    @PostMapping
+    public ResponseEntity<BaseResponse<Integer>> recordPlay(
+            @Valid @RequestBody PlayRequest request,
+            Authentication authentication) {
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        return respond(playService.recordPlays(userId, List.of(request)));
+    }
+
+    // For offline clients; on 503 the data is how many leading plays were taken.
+    @PostMapping("/batch")
+    public ResponseEntity<BaseResponse<Integer>> recordPlays(
+            @Valid @RequestBody PlayBatchRequest request,
+            Authentication authentication) {
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        return respond(playService.recordPlays(userId, request.getPlays()));
+    }
+
+    // Unlike the catalog endpoints the HTTP status matters here: clients back off on 503.
+    private static ResponseEntity<BaseResponse<Integer>> respond(BaseResponse<Integer> response) {
+        if (response.getStatusCode() == 503) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+        }
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+}
@@ -1,15 +1,21 @@
 package bui.dev.rhymcaffer.controller;
 
 import bui.dev.rhymcaffer.dto.request.PlaylistRequest;
+import bui.dev.rhymcaffer.dto.request.PlaylistTrackMoveRequest;
+import bui.dev.rhymcaffer.dto.request.PlaylistTracksRequest;
 import bui.dev.rhymcaffer.dto.response.BaseResponse;
 import bui.dev.rhymcaffer.dto.response.PlaylistResponse;
+import bui.dev.rhymcaffer.dto.response.PlaylistTrackResponse;
 import bui.dev.rhymcaffer.security.UserDetailsImpl;
 import bui.dev.rhymcaffer.service.PlaylistService;
+import bui.dev.rhymcaffer.web.CatalogVersions.Resource;
+import bui.dev.rhymcaffer.web.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,18 +35,23 @@ public class PlaylistController {
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet(Resource.PLAYLIST)
     public ResponseEntity<BaseResponse<PlaylistResponse>> getPlaylist(@PathVariable Long id) {
         return ResponseEntity.ok(playlistService.getPlaylist(id));
     }
 
     @GetMapping
-    public ResponseEntity<BaseResponse<List<PlaylistResponse>>> getAllPlaylists() {
-        return ResponseEntity.ok(playlistService.getAllPlaylists());
+    public ResponseEntity<BaseResponse<List<PlaylistResponse>>> getAllPlaylists(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(playlistService.getAllPlaylists(after, limit));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<BaseResponse<List<PlaylistResponse>>> searchPlaylists(@RequestParam String name) {
-        return ResponseEntity.ok(playlistService.searchPlaylists(name));
+    public ResponseEntity<BaseResponse<List<PlaylistResponse>>> searchPlaylists(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(playlistService.searchPlaylists(name, limit));
     }
 
     @GetMapping("/owner")
@@ -50,8 +61,14 @@ public class PlaylistController {
     }
 
     @GetMapping("/followed")
-    public ResponseEntity<BaseResponse<List<PlaylistResponse>>> getFollowedPlaylists(Authentication authentication) {
+    public ResponseEntity<BaseResponse<List<PlaylistResponse>>> getFollowedPlaylists(
+            Authentication authentication,
+            WebRequest request) {
         Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        // Weak, like the single-playlist tag: follower counts in the body are not part of it.
+        if (request.checkNotModified("W/\"" + playlistService.getFollowedSnapshotTag(userId) + "\"")) {
+            return null;
+        }
         return ResponseEntity.ok(playlistService.getFollowedPlaylists(userId));
     }
 
@@ -61,11 +78,43 @@ public class PlaylistController {
     }
 
 
+    @GetMapping("/{playlistId}/tracks")
+    public ResponseEntity<BaseResponse<List<PlaylistTrackResponse>>> getPlaylistTracks(
+            @PathVariable Long playlistId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(playlistService.getPlaylistTracks(playlistId, offset, limit));
+    }
+
+    @PostMapping("/{playlistId}/tracks")
+    public ResponseEntity<BaseResponse<Void>> addTracksToPlaylist(
+            @PathVariable Long playlistId,
+            @Valid @RequestBody PlaylistTracksRequest request) {
+        return ResponseEntity.ok(playlistService.addTracksToPlaylist(playlistId, request));
+    }
+
+    // Removes every occurrence of each listed track.
+    @DeleteMapping("/{playlistId}/tracks")
+    public ResponseEntity<BaseResponse<Void>> removeTracksFromPlaylist(
+            @PathVariable Long playlistId,
+            @Valid @RequestBody PlaylistTracksRequest request) {
+        return ResponseEntity.ok(playlistService.removeTracksFromPlaylist(playlistId, request));
+    }
+
+    // Appends unless index is given; the same track may be added more than once.
     @PostMapping("/{playlistId}/tracks/{trackId}")
     public ResponseEntity<BaseResponse<Void>> addTrackToPlaylist(
             @PathVariable Long playlistId,
-            @PathVariable Long trackId) {
-        return ResponseEntity.ok(playlistService.addTrackToPlaylist(playlistId, trackId));
+            @PathVariable Long trackId,
+            @RequestParam(required = false) Integer index) {
+        return ResponseEntity.ok(playlistService.addTrackToPlaylist(playlistId, trackId, index));
+    }
+
+    @PostMapping("/{playlistId}/tracks/move")
+    public ResponseEntity<BaseResponse<Void>> moveTrack(
+            @PathVariable Long playlistId,
+            @Valid @RequestBody PlaylistTrackMoveRequest request) {
+        return ResponseEntity.ok(playlistService.moveTrack(playlistId, request));
     }
 
     @DeleteMapping("/{playlistId}/tracks/{trackId}")
@@ -104,4 +153,4 @@ public class PlaylistController {
         Long ownerId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
         return ResponseEntity.ok(playlistService.updatePlaylist(id, request, ownerId));
     }
-}
\ No newline at end of file
+}
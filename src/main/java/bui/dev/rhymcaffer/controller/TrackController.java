@@ -6,6 +6,8 @@ import bui.dev.rhymcaffer.dto.response.TrackResponse;
 import bui.dev.rhymcaffer.dto.response.TrackListResponse;
 import bui.dev.rhymcaffer.security.UserDetailsImpl;
 import bui.dev.rhymcaffer.service.TrackService;
+import bui.dev.rhymcaffer.web.CatalogVersions.Resource;
+import bui.dev.rhymcaffer.web.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -27,18 +29,29 @@ public class TrackController {
         }
 
         @GetMapping("/{id}")
+        @ConditionalGet(Resource.TRACK)
         public ResponseEntity<BaseResponse<TrackResponse>> getTrack(@PathVariable Long id) {
                 return ResponseEntity.ok(trackService.getTrack(id));
         }
 
         @GetMapping
-        public ResponseEntity<BaseResponse<List<TrackListResponse>>> getAllTracks() {
-                return ResponseEntity.ok(trackService.getAllTracks());
+        public ResponseEntity<BaseResponse<List<TrackListResponse>>> getAllTracks(
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(trackService.getAllTracks(after, limit));
+        }
+
+        // At most 100 ids; results keep the request order, with null where an id does not exist.
+        @GetMapping(params = "ids")
+        public ResponseEntity<BaseResponse<List<TrackResponse>>> getTracks(@RequestParam List<Long> ids) {
+                return ResponseEntity.ok(trackService.getTracks(ids));
         }
 
         @GetMapping("/search")
-        public ResponseEntity<BaseResponse<List<TrackResponse>>> searchTracks(@RequestParam String name) {
-                return ResponseEntity.ok(trackService.searchTracks(name));
+        public ResponseEntity<BaseResponse<List<TrackResponse>>> searchTracks(
+                        @RequestParam String name,
+                        @RequestParam(defaultValue = "20") int limit) {
+                return ResponseEntity.ok(trackService.searchTracks(name, limit));
         }
 
         @GetMapping("/artist/{artistId}")
@@ -57,10 +70,20 @@ public class TrackController {
                 return ResponseEntity.ok(trackService.getSavedTracks(userId));
         }
 
+        @GetMapping("/saved/contains")
+        public ResponseEntity<BaseResponse<List<Boolean>>> savedTracksContain(
+                        @RequestParam List<Long> ids,
+                        Authentication authentication) {
+                Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+                return ResponseEntity.ok(trackService.savedTracksContain(userId, ids));
+        }
+
         @GetMapping("/popular")
         public ResponseEntity<BaseResponse<List<TrackResponse>>> getPopularTracks(
-                        @RequestParam(defaultValue = "70") int minPopularity) {
-                return ResponseEntity.ok(trackService.getPopularTracks(minPopularity));
+                        @RequestParam(required = false) String market,
+                        @RequestParam(required = false) String after,
+                        @RequestParam(defaultValue = "20") int limit) {
+                return ResponseEntity.ok(trackService.getPopularTracks(market, after, limit));
         }
 
         @PostMapping("/{trackId}/save")
@@ -3,6 +3,7 @@ package bui.dev.rhymcaffer.controller;
 import bui.dev.rhymcaffer.dto.request.UserRequest;
 import bui.dev.rhymcaffer.dto.request.UserUpdateRequest;
 import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.UserCardResponse;
 import bui.dev.rhymcaffer.dto.response.UserResponse;
 import bui.dev.rhymcaffer.security.UserDetailsImpl;
 import bui.dev.rhymcaffer.service.UserService;
@@ -37,8 +38,10 @@ public class UserController {
         }
 
         @GetMapping
-        public ResponseEntity<BaseResponse<List<UserResponse>>> getAllUsers() {
-                return ResponseEntity.ok(userService.getAllUsers());
+        public ResponseEntity<BaseResponse<List<UserResponse>>> getAllUsers(
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(userService.getAllUsers(after, limit));
         }
 
         @GetMapping("/search")
@@ -70,13 +73,45 @@ public class UserController {
         }
 
         @GetMapping("/{userId}/followers")
-        public ResponseEntity<BaseResponse<List<UserResponse>>> getFollowers(@PathVariable Long userId) {
-                return ResponseEntity.ok(userService.getFollowers(userId));
+        public ResponseEntity<BaseResponse<List<UserCardResponse>>> getFollowers(
+                        @PathVariable Long userId,
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(userService.getFollowers(userId, after, limit));
         }
 
         @GetMapping("/{userId}/following")
-        public ResponseEntity<BaseResponse<List<UserResponse>>> getFollowing(@PathVariable Long userId) {
-                return ResponseEntity.ok(userService.getFollowing(userId));
+        public ResponseEntity<BaseResponse<List<UserCardResponse>>> getFollowing(
+                        @PathVariable Long userId,
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(userService.getFollowing(userId, after, limit));
+        }
+
+        @GetMapping("/{userId}/mutuals")
+        public ResponseEntity<BaseResponse<List<UserCardResponse>>> getMutuals(
+                        @PathVariable Long userId,
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(userService.getMutuals(userId, after, limit));
+        }
+
+        @GetMapping("/suggestions")
+        public ResponseEntity<BaseResponse<List<UserCardResponse>>> getSuggestions(
+                        @RequestParam(defaultValue = "20") int limit,
+                        Authentication authentication) {
+                Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+                return ResponseEntity.ok(userService.getSuggestions(userId, limit));
+        }
+
+        // collection: playlists, saved-tracks, saved-albums, followed-artists, followers or following
+        @GetMapping("/{userId}/{collection}/ids")
+        public ResponseEntity<BaseResponse<List<Long>>> getIds(
+                        @PathVariable Long userId,
+                        @PathVariable String collection,
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(userService.getIds(userId, collection, after, limit));
         }
 
         @DeleteMapping("/{id}")
@@ -14,6 +14,7 @@ public class AlbumRequest {
     private String imageUrl;
     private String description;
     private Integer popularity;
+    @ReleaseDate
     private String releaseDate;
     private String albumType; // album, single, compilation
     private Set<Long> artistIds;
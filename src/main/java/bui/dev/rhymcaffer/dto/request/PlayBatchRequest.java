@@ -0,0 +1,16 @@
+package bui.dev.rhymcaffer.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PlayBatchRequest {
+    @NotEmpty(message = "Plays are required")
+    @Size(max = 500, message = "At most 500 plays per request")
+    private List<@Valid @NotNull PlayRequest> plays;
+}
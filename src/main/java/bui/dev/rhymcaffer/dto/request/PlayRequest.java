@@ -0,0 +1,19 @@
+package bui.dev.rhymcaffer.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class PlayRequest {
+    @NotNull(message = "Track id is required")
+    private Long trackId;
+
+    @PositiveOrZero(message = "Played time must not be negative")
+    private Integer msPlayed;
+
+    // Set by offline clients replaying a backlog; defaults to the time the play is received.
+    private LocalDateTime playedAt;
+}
@@ -1,9 +1,11 @@
 package bui.dev.rhymcaffer.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
-import java.util.Set;
+import java.util.List;
 
 @Data
 public class PlaylistRequest {
@@ -14,5 +16,7 @@ public class PlaylistRequest {
     private String imageUrl;
     private Boolean isPublic;
     private Boolean collaborative;
-    private Set<Long> trackIds;
+
+    @Size(max = PlaylistTracksRequest.MAX_TRACKS, message = "At most 500 tracks per request")
+    private List<@NotNull Long> trackIds;
 }
\ No newline at end of file
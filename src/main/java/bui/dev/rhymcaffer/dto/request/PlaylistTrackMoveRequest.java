@@ -0,0 +1,15 @@
+package bui.dev.rhymcaffer.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class PlaylistTrackMoveRequest {
+    @NotNull(message = "Entry id is required")
+    private Long entryId;
+
+    @NotNull(message = "Target index is required")
+    @Min(value = 0, message = "Target index must not be negative")
+    private Integer toIndex;
+}
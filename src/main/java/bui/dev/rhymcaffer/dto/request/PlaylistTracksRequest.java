@@ -0,0 +1,22 @@
+package bui.dev.rhymcaffer.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PlaylistTracksRequest {
+    public static final int MAX_TRACKS = 500;
+
+    @NotEmpty(message = "Track ids are required")
+    @Size(max = MAX_TRACKS, message = "At most 500 tracks per request")
+    private List<@NotNull Long> trackIds;
+
+    // Only used when adding; the tracks are appended when it is absent.
+    @Min(value = 0, message = "Index must not be negative")
+    private Integer index;
+}
@@ -0,0 +1,34 @@
+package bui.dev.rhymcaffer.dto.request;
+
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A YYYY, YYYY-MM or YYYY-MM-DD string naming a day that exists. Null is allowed.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = ReleaseDate.Validator.class)
+public @interface ReleaseDate {
+
+    String message() default "Release date must be a real date as YYYY, YYYY-MM or YYYY-MM-DD";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validator implements ConstraintValidator<ReleaseDate, String> {
+        @Override
+        public boolean isValid(String value, ConstraintValidatorContext context) {
+            return value == null || ReleaseDatePrecision.isValid(value);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package bui.dev.rhymcaffer.dto.response;
 
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +20,7 @@ public class AlbumResponse {
     private String description;
     private Integer popularity;
     private String releaseDate;
+    private ReleaseDatePrecision releaseDatePrecision;
     private String albumType;
     private Set<Long> artistIds;
     private Set<Long> trackIds;
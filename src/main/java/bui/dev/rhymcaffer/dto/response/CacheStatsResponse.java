@@ -0,0 +1,33 @@
+package bui.dev.rhymcaffer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheStatsResponse {
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long queryCacheHitCount;
+    private long queryCacheMissCount;
+    private List<Region> regions;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Region {
+        private String name;
+        private long hitCount;
+        private long missCount;
+        private long putCount;
+        private long elementCount;
+    }
+}
@@ -0,0 +1,34 @@
+package bui.dev.rhymcaffer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChartResponse {
+    private String chart;
+    private String market;
+    private LocalDate date;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private List<Entry> entries;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Entry {
+        private int position;
+        private long plays;
+        private long saves;
+        private TrackResponse track;
+    }
+}
@@ -0,0 +1,27 @@
+package bui.dev.rhymcaffer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayStatsResponse {
+    private int capacity;
+    private int buffered;
+    private long accepted;
+    // Refused because the buffer was full; those requests were answered 503.
+    private long dropped;
+    private long written;
+    // Failed batch inserts that were tried again.
+    private long retried;
+    // Accepted plays that still could not be written, even one by one.
+    private long lost;
+    private long batches;
+    // From acceptance to the batch insert completing.
+    private double averageLatencyMs;
+    private double maxLatencyMs;
+}
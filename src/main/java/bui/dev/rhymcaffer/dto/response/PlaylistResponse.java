@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.Set;
 
 @Data
 @Builder
@@ -20,8 +19,9 @@ public class PlaylistResponse {
     private Boolean isPublic;
     private Boolean collaborative;
     private Long ownerId;
-    private Set<Long> trackIds;
-    private Set<Long> followerIds;
+    private long trackCount;
+    private long followerCount;
+    private long snapshotId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 } 
\ No newline at end of file
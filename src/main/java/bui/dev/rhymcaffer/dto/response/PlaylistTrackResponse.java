@@ -0,0 +1,24 @@
+package bui.dev.rhymcaffer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlaylistTrackResponse {
+    private Long entryId;
+    private long position;
+    private LocalDateTime addedAt;
+    private Long trackId;
+    private String name;
+    private String imageUrl;
+    private Integer durationMs;
+    private Boolean explicit;
+    private Long albumId;
+}
@@ -0,0 +1,17 @@
+package bui.dev.rhymcaffer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserCardResponse {
+    private Long id;
+    private String username;
+    private String displayName;
+    private String imageUrl;
+}
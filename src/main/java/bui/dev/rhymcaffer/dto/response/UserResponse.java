@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.Set;
 
 @Data
 @Builder
@@ -19,12 +18,12 @@ public class UserResponse {
     private String displayName;
     private String bio;
     private String imageUrl;
-    private Set<Long> playlistIds;
-    private Set<Long> savedTrackIds;
-    private Set<Long> savedAlbumIds;
-    private Set<Long> followedArtistIds;
-    private Set<Long> followerIds;
-    private Set<Long> followingIds;
+    private long playlistCount;
+    private long savedTrackCount;
+    private long savedAlbumCount;
+    private long followedArtistCount;
+    private long followerCount;
+    private long followingCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     // Add more fields as needed, e.g., profileImage, bio, etc.
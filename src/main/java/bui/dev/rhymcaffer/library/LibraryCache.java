@@ -0,0 +1,83 @@
+package bui.dev.rhymcaffer.library;
+
+import bui.dev.rhymcaffer.repository.AlbumRepository;
+import bui.dev.rhymcaffer.repository.ArtistRepository;
+import bui.dev.rhymcaffer.repository.TrackRepository;
+import bui.dev.rhymcaffer.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers "is this in the user's library" from per-user bitmaps instead of the join tables.
+ * A user's library is loaded on first use; the save, follow and unsave paths patch loaded
+ * libraries after commit and leave unloaded ones alone, since the next load reads fresh rows.
+ */
+@Component
+public class LibraryCache {
+
+    public enum Kind {
+        TRACK, ALBUM, ARTIST
+    }
+
+    public static final int MAX_CONTAINS_IDS = 50;
+
+    private final TrackRepository trackRepository;
+    private final AlbumRepository albumRepository;
+    private final ArtistRepository artistRepository;
+    private final LoadingCache<Long, UserLibrary> libraries;
+
+    public LibraryCache(
+            TrackRepository trackRepository,
+            AlbumRepository albumRepository,
+            ArtistRepository artistRepository,
+            @Value("${library.cache-size:50000}") long cacheSize,
+            @Value("${library.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.trackRepository = trackRepository;
+        this.albumRepository = albumRepository;
+        this.artistRepository = artistRepository;
+        this.libraries = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build(this::load);
+    }
+
+    public List<Boolean> contains(Long userId, Kind kind, List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_CONTAINS_IDS) {
+            throw new RuntimeException("Between 1 and " + MAX_CONTAINS_IDS + " ids are required");
+        }
+        return libraries.get(userId).contains(kind, ids);
+    }
+
+    // computeIfPresent waits for an in-flight load of the same user, so the change is
+    // applied on top of whatever that load read rather than lost.
+    public void added(Long userId, Kind kind, Long id) {
+        AfterCommit.run(() -> libraries.asMap().computeIfPresent(userId, (key, library) -> {
+            library.add(kind, id);
+            return library;
+        }));
+    }
+
+    public void removed(Long userId, Kind kind, Long id) {
+        AfterCommit.run(() -> libraries.asMap().computeIfPresent(userId, (key, library) -> {
+            library.remove(kind, id);
+            return library;
+        }));
+    }
+
+    public void invalidate(Long userId) {
+        AfterCommit.run(() -> libraries.invalidate(userId));
+    }
+
+    private UserLibrary load(Long userId) {
+        return new UserLibrary(Map.of(
+                Kind.TRACK, trackRepository.findSavedTrackIds(userId),
+                Kind.ALBUM, albumRepository.findSavedAlbumIds(userId),
+                Kind.ARTIST, artistRepository.findFollowedArtistIds(userId)));
+    }
+}
@@ -0,0 +1,70 @@
+package bui.dev.rhymcaffer.library;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One user's saved tracks, saved albums and followed artists as compressed bitmaps.
+ * Roaring bitmaps are not thread-safe, so reads and writes go through a read/write lock.
+ */
+final class UserLibrary {
+
+    private final Map<LibraryCache.Kind, Roaring64Bitmap> bitmaps = new EnumMap<>(LibraryCache.Kind.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    UserLibrary(Map<LibraryCache.Kind, ? extends Iterable<Long>> ids) {
+        for (LibraryCache.Kind kind : LibraryCache.Kind.values()) {
+            Roaring64Bitmap bitmap = new Roaring64Bitmap();
+            Iterable<Long> kindIds = ids.get(kind);
+            if (kindIds != null) {
+                kindIds.forEach(bitmap::addLong);
+            }
+            bitmap.runOptimize();
+            bitmaps.put(kind, bitmap);
+        }
+    }
+
+    void add(LibraryCache.Kind kind, long id) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.get(kind).addLong(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(LibraryCache.Kind kind, long id) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.get(kind).removeLong(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Boolean> contains(LibraryCache.Kind kind, List<Long> ids) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap bitmap = bitmaps.get(kind);
+            return ids.stream()
+                    .map(id -> id != null && bitmap.contains(id))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long size(LibraryCache.Kind kind) {
+        lock.readLock().lock();
+        try {
+            return bitmaps.get(kind).getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -8,7 +8,11 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -18,7 +22,9 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "albums")
+@Table(name = "albums", indexes = @Index(name = "idx_albums_release_date", columnList = "release_date, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 public class Album {
     @Id
@@ -31,9 +37,16 @@ public class Album {
     private String imageUrl;
     private String description;
     private Integer popularity;
-    private String releaseDate;
+    private LocalDate releaseDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 5)
+    private ReleaseDatePrecision releaseDatePrecision;
+
     private String albumType; // album, single, compilation
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100)
     @ManyToMany
     @JoinTable(
         name = "album_artists",
@@ -42,9 +55,12 @@ public class Album {
     )
     private Set<Artist> artists = new HashSet<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "album", cascade = CascadeType.ALL)
     private Set<Track> tracks = new HashSet<>();
 
+    @BatchSize(size = 100)
     @ManyToMany
     @JoinTable(
         name = "album_followers",
@@ -53,6 +69,9 @@ public class Album {
     )
     private Set<User> followers = new HashSet<>();
 
+    @Version
+    private long version;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -9,6 +9,9 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -23,7 +26,9 @@ import java.util.ArrayList;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "artists")
+@Table(name = "artists", indexes = @Index(name = "idx_artists_popularity", columnList = "popularity, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 public class Artist {
     @Id
@@ -37,9 +42,13 @@ public class Artist {
     private String description;
     private Integer popularity;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100)
     @ManyToMany(mappedBy = "artists")
     private Set<Track> tracks = new HashSet<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100)
     @ManyToMany(mappedBy = "artists")
     private Set<Album> albums = new HashSet<>();
 
@@ -47,6 +56,9 @@ public class Artist {
     @JoinTable(name = "artist_followers", joinColumns = @JoinColumn(name = "artist_id"), inverseJoinColumns = @JoinColumn(name = "user_id"))
     private Set<User> followers = new HashSet<>();
 
+    @Version
+    private long version;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -0,0 +1,26 @@
+package bui.dev.rhymcaffer.model;
+
+// A ranked chart and how many whole days of activity it covers, ending at the start of the
+// day it is published for.
+public enum Chart {
+    DAILY(1), WEEKLY(7);
+
+    private final int days;
+
+    Chart(int days) {
+        this.days = days;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public static Chart of(String name) {
+        for (Chart chart : values()) {
+            if (chart.name().equalsIgnoreCase(name)) {
+                return chart;
+            }
+        }
+        throw new RuntimeException("Chart not found");
+    }
+}
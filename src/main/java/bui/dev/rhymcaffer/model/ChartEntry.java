@@ -0,0 +1,37 @@
+package bui.dev.rhymcaffer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+// One ranked track of a chart snapshot, with the activity it was ranked on.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Immutable
+@Table(name = "chart_entries", uniqueConstraints = @UniqueConstraint(
+        name = "uk_chart_entries_position", columnNames = { "snapshot_id", "position" }))
+public class ChartEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long snapshotId;
+
+    @Column(nullable = false)
+    private int position;
+
+    @Column(nullable = false)
+    private Long trackId;
+
+    private long plays;
+    private long saves;
+}
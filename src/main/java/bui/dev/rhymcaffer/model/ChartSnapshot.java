@@ -0,0 +1,49 @@
+package bui.dev.rhymcaffer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One published chart, worldwide or for one listener country. Snapshots and their entries are written once and never changed, so a
+// chart for a past date reads the same forever.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Immutable
+@Table(name = "chart_snapshots", uniqueConstraints = @UniqueConstraint(
+        name = "uk_chart_snapshots_market_date", columnNames = { "chart", "market", "chart_date" }))
+public class ChartSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Chart chart;
+
+    // Markets.GLOBAL for the worldwide chart.
+    @Column(nullable = false)
+    private String market;
+
+    @Column(nullable = false)
+    private LocalDate chartDate;
+
+    @Column(nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
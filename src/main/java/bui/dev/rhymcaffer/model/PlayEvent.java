@@ -0,0 +1,39 @@
+package bui.dev.rhymcaffer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// One play of a track. Rows are only ever appended, in batches by PlayIngestion, so the
+// user and track are plain ids rather than foreign keys.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "play_events", indexes = {
+        @Index(name = "idx_play_events_played_at", columnList = "played_at"),
+        @Index(name = "idx_play_events_track", columnList = "track_id, played_at")
+})
+public class PlayEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long trackId;
+
+    @Column(nullable = false)
+    private LocalDateTime playedAt;
+
+    private Integer msPlayed;
+}
@@ -33,18 +33,14 @@ public class Playlist {
     private Boolean isPublic;
     private Boolean collaborative;
 
+    // Bumped on every change to the playlist's details or tracks, but not on follows.
+    @Column(nullable = false)
+    private long snapshotId;
+
     @ManyToOne
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
-    @ManyToMany
-    @JoinTable(
-        name = "playlist_tracks",
-        joinColumns = @JoinColumn(name = "playlist_id"),
-        inverseJoinColumns = @JoinColumn(name = "track_id")
-    )
-    private Set<Track> tracks = new HashSet<>();
-
     @ManyToMany
     @JoinTable(
         name = "playlist_followers",
@@ -0,0 +1,44 @@
+package bui.dev.rhymcaffer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// One entry of a playlist. A track may appear more than once; entries are ordered by
+// position, which is spaced out so an insert or move only rewrites the moved row.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "playlist_tracks", indexes = @Index(name = "idx_playlist_tracks_position", columnList = "playlist_id, position"))
+@EntityListeners(AuditingEntityListener.class)
+public class PlaylistTrack {
+    public static final long POSITION_GAP = 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "playlist_id", nullable = false)
+    private Playlist playlist;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "track_id", nullable = false)
+    private Track track;
+
+    @Column(nullable = false)
+    private long position;
+
+    @CreatedDate
+    private LocalDateTime addedAt;
+}
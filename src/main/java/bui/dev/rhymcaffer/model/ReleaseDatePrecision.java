@@ -0,0 +1,55 @@
+package bui.dev.rhymcaffer.model;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
+
+// How much of an album's release date is known. The stored date fills the unknown parts
+// with the first month or day, so "2020" sorts as 2020-01-01.
+public enum ReleaseDatePrecision {
+    YEAR, MONTH, DAY;
+
+    private static final Pattern SHAPE = Pattern.compile("\\d{4}(-\\d{2}(-\\d{2})?)?");
+
+    // Shape alone lets through 2021-02-30 or 2020-13, which parse() would then reject.
+    public static boolean isValid(String value) {
+        if (value == null || !SHAPE.matcher(value).matches()) {
+            return false;
+        }
+        try {
+            parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    public static ReleaseDatePrecision of(String value) {
+        return switch (value.length()) {
+            case 4 -> YEAR;
+            case 7 -> MONTH;
+            default -> DAY;
+        };
+    }
+
+    public static LocalDate parse(String value) {
+        return switch (of(value)) {
+            case YEAR -> Year.parse(value).atDay(1);
+            case MONTH -> YearMonth.parse(value).atDay(1);
+            case DAY -> LocalDate.parse(value);
+        };
+    }
+
+    public static String format(LocalDate date, ReleaseDatePrecision precision) {
+        if (date == null) {
+            return null;
+        }
+        return switch (precision == null ? DAY : precision) {
+            case YEAR -> String.valueOf(date.getYear());
+            case MONTH -> YearMonth.from(date).toString();
+            case DAY -> date.toString();
+        };
+    }
+}
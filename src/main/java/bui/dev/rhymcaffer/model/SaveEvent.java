@@ -0,0 +1,37 @@
+package bui.dev.rhymcaffer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// One save of a track, appended next to the user_saved_tracks row, which has no timestamp
+// of its own. Charts count these over their windows; unsaves are not logged.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "save_events", indexes = {
+        @Index(name = "idx_save_events_saved_at", columnList = "saved_at"),
+        @Index(name = "idx_save_events_track", columnList = "track_id, saved_at")
+})
+public class SaveEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long trackId;
+
+    @Column(nullable = false)
+    private LocalDateTime savedAt;
+}
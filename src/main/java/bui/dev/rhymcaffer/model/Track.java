@@ -9,6 +9,9 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -21,7 +24,9 @@ import java.util.Objects;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "tracks")
+@Table(name = "tracks", indexes = @Index(name = "idx_tracks_popularity", columnList = "popularity, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 public class Track {
     @Id
@@ -43,17 +48,22 @@ public class Track {
     @JoinColumn(name = "album_id")
     private Album album;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100)
     @ManyToMany
     @JoinTable(name = "track_artists", joinColumns = @JoinColumn(name = "track_id"), inverseJoinColumns = @JoinColumn(name = "artist_id"))
     private Set<Artist> artists = new HashSet<>();
 
-    @ManyToMany(mappedBy = "tracks")
-    private Set<Playlist> playlists = new HashSet<>();
+    @OneToMany(mappedBy = "track")
+    private Set<PlaylistTrack> playlists = new HashSet<>();
 
     @ManyToMany
     @JoinTable(name = "user_saved_tracks", joinColumns = @JoinColumn(name = "track_id"), inverseJoinColumns = @JoinColumn(name = "user_id"))
     private Set<User> savedByUsers = new HashSet<>();
 
+    @Version
+    private long version;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
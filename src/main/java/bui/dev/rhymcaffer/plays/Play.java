@@ -0,0 +1,7 @@
+package bui.dev.rhymcaffer.plays;
+
+import java.time.LocalDateTime;
+
+// A play waiting in the ingestion buffer; enqueuedAt is System.nanoTime() at acceptance.
+public record Play(long userId, long trackId, LocalDateTime playedAt, Integer msPlayed, long enqueuedAt) {
+}
@@ -0,0 +1,256 @@
+package bui.dev.rhymcaffer.plays;
+
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.PlayStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes plays into a bounded ring buffer and writes them to play_events in JDBC batches from a
+ * single background thread. Request threads never wait on the database: when the buffer is
+ * full the plays are refused and counted as dropped, and the caller answers 503 so clients
+ * back off and resend. Under load each batch is whatever piled up during the previous insert,
+ * up to the batch size, so batches grow with the arrival rate.
+ * Accepted plays have already been answered 202, so a failed batch is retried with backoff
+ * and then written row by row; only the rows that still fail are lost and counted.
+ */
+@Component
+@Slf4j
+public class PlayIngestion implements SmartLifecycle {
+
+    private static final String INSERT_PLAY = "INSERT INTO play_events (user_id, track_id, played_at, ms_played) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final long IDLE_POLL_MS = 100;
+    private static final long STOP_TIMEOUT_MS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Play> buffer;
+    private final int capacity;
+    private final int batchSize;
+    private final int retries;
+    private final long retryBackoffMs;
+    private final boolean autoStartup;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PlayIngestion(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${plays.buffer.capacity:65536}") int capacity,
+            @Value("${plays.writer.batch-size:1000}") int batchSize,
+            @Value("${plays.writer.retries:3}") int retries,
+            @Value("${plays.writer.retry-backoff-ms:100}") long retryBackoffMs,
+            @Value("${plays.writer.auto-startup:true}") boolean autoStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.retries = retries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.autoStartup = autoStartup;
+    }
+
+    // Takes plays in order until the buffer is full and returns how many it took.
+    public int offer(List<Play> plays) {
+        int taken = 0;
+        for (Play play : plays) {
+            if (!buffer.offer(play)) {
+                break;
+            }
+            taken++;
+        }
+        accepted.add(taken);
+        dropped.add(plays.size() - taken);
+        return taken;
+    }
+
+    public BaseResponse<PlayStatsResponse> getStats() {
+        long batchedPlays = written.sum();
+        PlayStatsResponse response = PlayStatsResponse.builder()
+                .capacity(capacity)
+                .buffered(buffer.size())
+                .accepted(accepted.sum())
+                .dropped(dropped.sum())
+                .written(batchedPlays)
+                .retried(retried.sum())
+                .lost(lost.sum())
+                .batches(batches.sum())
+                .averageLatencyMs(batchedPlays == 0 ? 0 : latencyNanos.sum() / 1e6 / batchedPlays)
+                .maxLatencyMs(maxLatencyNanos.get() / 1e6)
+                .build();
+        return BaseResponse.<PlayStatsResponse>builder()
+                .statusCode(200)
+                .isSuccess(true)
+                .message("Success")
+                .data(response)
+                .build();
+    }
+
+    // Writes one batch of whatever is buffered, without waiting; returns how many plays it took.
+    int drain() {
+        List<Play> batch = new ArrayList<>();
+        buffer.drainTo(batch, batchSize);
+        write(batch);
+        return batch.size();
+    }
+
+    private void run() {
+        List<Play> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Play first = buffer.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<Play> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                insert(batch);
+                break;
+            } catch (RuntimeException e) {
+                if (attempt == retries || !pause(backoffMs)) {
+                    log.warn("Batch insert of {} plays failed {} times, writing them one by one",
+                            batch.size(), attempt + 1, e);
+                    writeEach(batch);
+                    return;
+                }
+                retried.increment();
+                backoffMs *= 2;
+            }
+        }
+        recordWritten(batch);
+        batches.increment();
+    }
+
+    // Isolates the rows a batch cannot take, so one bad play does not cost its whole batch.
+    private void writeEach(List<Play> batch) {
+        List<Play> saved = new ArrayList<>(batch.size());
+        for (Play play : batch) {
+            try {
+                insert(List.of(play));
+                saved.add(play);
+            } catch (RuntimeException e) {
+                lost.increment();
+                log.warn("Lost play of track {} by user {}", play.trackId(), play.userId(), e);
+            }
+        }
+        if (!saved.isEmpty()) {
+            recordWritten(saved);
+        }
+    }
+
+    // One transaction per attempt, so a failed batch leaves no rows behind to be written twice.
+    private void insert(List<Play> plays) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_PLAY, plays, plays.size(), (ps, play) -> {
+                    ps.setLong(1, play.userId());
+                    ps.setLong(2, play.trackId());
+                    ps.setTimestamp(3, Timestamp.valueOf(play.playedAt()));
+                    if (play.msPlayed() == null) {
+                        ps.setNull(4, Types.INTEGER);
+                    } else {
+                        ps.setInt(4, play.msPlayed());
+                    }
+                }));
+    }
+
+    private void recordWritten(List<Play> plays) {
+        long now = System.nanoTime();
+        for (Play play : plays) {
+            latencyNanos.add(now - play.enqueuedAt());
+        }
+        // The buffer is FIFO, so the first play in a batch waited longest.
+        maxLatencyNanos.accumulateAndGet(now - plays.get(0).enqueuedAt(), Math::max);
+        written.add(plays.size());
+    }
+
+    // False when interrupted by stop(), so the batch goes straight to the row-by-row fallback.
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::run, "play-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Lets the writer empty the buffer before the DataSource goes away.
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(STOP_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("Stopped with {} plays still buffered", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return autoStartup;
+    }
+
+    // Below the web server's phases: started before requests arrive, stopped after they end.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,120 @@
+package bui.dev.rhymcaffer.popularity;
+
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ids ranked by popularity, highest first and ties in id order, keeping the top
+ * {@code capacity} in a skip list. The board always holds every row that ranks at or above its
+ * last entry, so a page that ends inside it is exact; a page that runs past it is read from the
+ * source with the same ordering. Reads take no lock; writers are serialized.
+ */
+public class Leaderboard {
+
+    public interface Source {
+        List<IdPopularity> after(IdPopularity cursor, int limit);
+    }
+
+    // Ranks ahead of every row, so paging from it starts at the top.
+    public static final IdPopularity TOP = new IdPopularity(0L, Integer.MAX_VALUE);
+
+    public static final Comparator<IdPopularity> RANK = Comparator
+            .comparingInt(IdPopularity::popularity).reversed()
+            .thenComparing(IdPopularity::id);
+
+    private final int capacity;
+    private final Source source;
+    private final ConcurrentSkipListSet<IdPopularity> ranked = new ConcurrentSkipListSet<>(RANK);
+    private final Map<Long, IdPopularity> byId = new ConcurrentHashMap<>();
+    // Set while the board holds every ranked row, so nothing ranks below its last entry.
+    private volatile boolean whole;
+
+    public Leaderboard(int capacity, Source source) {
+        this.capacity = capacity;
+        this.source = source;
+    }
+
+    // A fixed board over rows known in full, with nothing behind it to fall back to.
+    public static Leaderboard of(Collection<IdPopularity> rows) {
+        Leaderboard board = new Leaderboard(rows.size(), (after, limit) -> List.of());
+        rows.forEach(board::add);
+        board.whole = true;
+        return board;
+    }
+
+    public synchronized void reload() {
+        whole = false;
+        List<IdPopularity> top = source.after(TOP, capacity + 1);
+        ranked.clear();
+        byId.clear();
+        top.stream().limit(capacity).forEach(this::add);
+        whole = top.size() <= capacity;
+    }
+
+    public synchronized void put(long id, Integer popularity) {
+        remove(id);
+        if (popularity == null) {
+            return;
+        }
+        IdPopularity entry = new IdPopularity(id, popularity);
+        // Below the last entry of a partial board there may be rows it never saw.
+        if (!whole && (ranked.isEmpty() || RANK.compare(entry, ranked.last()) > 0)) {
+            return;
+        }
+        add(entry);
+        if (ranked.size() > capacity) {
+            byId.remove(ranked.pollLast().id());
+            whole = false;
+        }
+    }
+
+    public synchronized void remove(long id) {
+        IdPopularity old = byId.remove(id);
+        if (old != null) {
+            ranked.remove(old);
+        }
+    }
+
+    // Up to limit + 1 rows ranked after the cursor; the extra row only says a next page exists.
+    public List<IdPopularity> page(IdPopularity after, int limit) {
+        List<IdPopularity> rows = new ArrayList<>(limit + 1);
+        for (IdPopularity entry : ranked.tailSet(after, false)) {
+            rows.add(entry);
+            if (rows.size() > limit) {
+                return rows;
+            }
+        }
+        return whole ? rows : source.after(after, limit + 1);
+    }
+
+    public static IdPopularity cursor(String after) {
+        if (after == null) {
+            return TOP;
+        }
+        String[] parts = after.split(":", -1);
+        try {
+            if (parts.length == 2) {
+                return new IdPopularity(Long.parseLong(parts[1]), Integer.parseInt(parts[0]));
+            }
+        } catch (NumberFormatException e) {
+            // Reported below like any other malformed cursor.
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + after);
+    }
+
+    public static String cursorOf(IdPopularity row) {
+        return row.popularity() + ":" + row.id();
+    }
+
+    private void add(IdPopularity entry) {
+        ranked.add(entry);
+        byId.put(entry.id(), entry);
+    }
+}
@@ -0,0 +1,75 @@
+package bui.dev.rhymcaffer.popularity;
+
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.repository.ArtistRepository;
+import bui.dev.rhymcaffer.repository.TrackRepository;
+import bui.dev.rhymcaffer.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * The track and artist popularity leaderboards. Loaded once the application is ready and after
+ * each popularity recompute, and kept current by the create, update and delete paths of the
+ * catalog services and by the popularity refresh. Boards for a single market come from
+ * {@link Markets}.
+ */
+@Component
+public class Leaderboards {
+
+    private final Leaderboard tracks;
+    private final Leaderboard artists;
+    private final Markets markets;
+
+    public Leaderboards(TrackRepository trackRepository,
+            ArtistRepository artistRepository,
+            Markets markets,
+            @Value("${popularity.leaderboard-size:10000}") int size) {
+        this.tracks = new Leaderboard(size, (after, limit) -> trackRepository.findRankedAfter(
+                after.popularity(), after.id(), Limit.of(limit)));
+        this.artists = new Leaderboard(size, (after, limit) -> artistRepository.findRankedAfter(
+                after.popularity(), after.id(), Limit.of(limit)));
+        this.markets = markets;
+    }
+
+    public Leaderboard tracks() {
+        return tracks;
+    }
+
+    public Leaderboard artists() {
+        return artists;
+    }
+
+    // The worldwide board when no market is given.
+    public Leaderboard tracks(String market) {
+        return Markets.normalize(market) == null ? tracks : markets.get(market).tracks();
+    }
+
+    public Leaderboard artists(String market) {
+        return Markets.normalize(market) == null ? artists : markets.get(market).artists();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        tracks.reload();
+        artists.reload();
+    }
+
+    public void trackRanked(Long id, Integer popularity) {
+        AfterCommit.run(() -> tracks.put(id, popularity));
+    }
+
+    public void trackRemoved(Long id) {
+        AfterCommit.run(() -> tracks.remove(id));
+    }
+
+    public void artistRanked(Long id, Integer popularity) {
+        AfterCommit.run(() -> artists.put(id, popularity));
+    }
+
+    public void artistRemoved(Long id) {
+        AfterCommit.run(() -> artists.remove(id));
+    }
+}
@@ -0,0 +1,257 @@
+package bui.dev.rhymcaffer.popularity;
+
+import bui.dev.rhymcaffer.cache.CatalogCache;
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.popularity.PopularityScores.Kind;
+import bui.dev.rhymcaffer.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Turns plays, saves and follows into the popularity of tracks, albums and artists. The nightly
+ * recompute rebuilds every score from the tables and rewrites popularity wherever it changed.
+ * Between recomputes, refresh folds in new play_events rows and the save and follow signals
+ * queued by the services, rolls them up to albums and artists, and rewrites only the rows they
+ * touched; the rest catch up at the next recompute.
+ */
+@Component
+@Slf4j
+public class PopularityEngine {
+
+    private static final double PLAY_WEIGHT = 1;
+    private static final double SAVE_WEIGHT = 5;
+    private static final double FOLLOW_WEIGHT = 10;
+    // After ten half-lives a play is worth under 0.1% of a new one, so the recompute skips it.
+    private static final int HALF_LIVES_KEPT = 10;
+    private static final int PAGE = 10_000;
+    private static final int ID_CHUNK = 1_000;
+    private static final String[] TABLES = { "tracks", "albums", "artists" };
+    private static final Class<?>[] ENTITIES = { Track.class, Album.class, Artist.class };
+    private static final String UPDATE_POPULARITY = "UPDATE %s SET popularity = ?, version = version + 1 "
+            + "WHERE id = ? AND (popularity IS NULL OR popularity <> ?)";
+
+    private record Signal(Kind kind, long id, double value) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final CatalogCache catalogCache;
+    private final Leaderboards leaderboards;
+    private final Duration halfLife;
+    private final Queue<Signal> signals = new ConcurrentLinkedQueue<>();
+
+    private PopularityScores scores;
+    private long watermark;
+
+    public PopularityEngine(JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            CatalogCache catalogCache,
+            Leaderboards leaderboards,
+            @Value("${popularity.half-life:7d}") Duration halfLife) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.catalogCache = catalogCache;
+        this.leaderboards = leaderboards;
+        this.halfLife = halfLife;
+    }
+
+    public void trackSaved(Long trackId, int delta) {
+        signal(Kind.TRACK, trackId, delta * SAVE_WEIGHT);
+    }
+
+    public void albumSaved(Long albumId, int delta) {
+        signal(Kind.ALBUM, albumId, delta * SAVE_WEIGHT);
+    }
+
+    public void artistFollowed(Long artistId, int delta) {
+        signal(Kind.ARTIST, artistId, delta * FOLLOW_WEIGHT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${popularity.recompute-cron:0 30 3 * * *}")
+    public synchronized void recompute() {
+        long started = System.currentTimeMillis();
+        // Anything committed before this point is already in the tables read below.
+        signals.clear();
+        // Dropped before the new scores are built so both are never held at once; refresh waits
+        // for the next recompute if this one fails.
+        scores = null;
+        Timestamp cutoff = new Timestamp(started - halfLife.toMillis() * HALF_LIVES_KEPT);
+        Integer played = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT track_id) FROM play_events WHERE played_at >= ?", Integer.class, cutoff);
+        Integer saved = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT track_id) FROM user_saved_tracks", Integer.class);
+        PopularityScores fresh = new PopularityScores(halfLife, started, played, saved);
+        addCounts(fresh, Kind.TRACK, "SELECT track_id, COUNT(*) FROM user_saved_tracks GROUP BY track_id", SAVE_WEIGHT);
+        addCounts(fresh, Kind.ALBUM, "SELECT album_id, COUNT(*) FROM album_followers GROUP BY album_id", SAVE_WEIGHT);
+        addCounts(fresh, Kind.ARTIST, "SELECT artist_id, COUNT(*) FROM artist_followers GROUP BY artist_id",
+                FOLLOW_WEIGHT);
+        Long first = jdbcTemplate.queryForObject("SELECT MIN(id) FROM play_events WHERE played_at >= ?", Long.class,
+                cutoff);
+        long after = first != null ? first - 1
+                : jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM play_events", Long.class);
+        long mark = addPlays(fresh, after);
+        rollUp(fresh);
+
+        double nowWeight = fresh.weightAt(System.currentTimeMillis());
+        int[] rewritten = new int[TABLES.length];
+        for (Kind kind : Kind.values()) {
+            rewritten[kind.ordinal()] = rewriteAll(fresh, kind, nowWeight);
+        }
+        scores = fresh;
+        watermark = mark;
+        leaderboards.reload();
+        log.info("Popularity recomputed in {} ms; rewrote {} tracks, {} albums, {} artists",
+                System.currentTimeMillis() - started, rewritten[0], rewritten[1], rewritten[2]);
+    }
+
+    @Scheduled(fixedDelayString = "${popularity.refresh-interval:5m}",
+            initialDelayString = "${popularity.refresh-interval:5m}")
+    public synchronized void refresh() {
+        if (scores == null) {
+            return;
+        }
+        PopularityScores delta = scores.withSameScale(ID_CHUNK);
+        for (Signal signal = signals.poll(); signal != null; signal = signals.poll()) {
+            delta.addHeld(signal.kind(), signal.id(), signal.value());
+        }
+        watermark = addPlays(delta, watermark);
+        rollUp(delta);
+        scores.merge(delta);
+
+        double nowWeight = scores.weightAt(System.currentTimeMillis());
+        for (Kind kind : Kind.values()) {
+            long[] ids = delta.ids(kind);
+            if (ids.length == 0) {
+                continue;
+            }
+            double max = scores.max(kind, nowWeight);
+            List<Object[]> updates = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                int popularity = PopularityScores.scale(scores.score(kind, id, nowWeight), max);
+                updates.add(new Object[] { popularity, id, popularity });
+            }
+            for (Object[] update : write(kind, updates)) {
+                rerank(kind, (Long) update[1], (Integer) update[0]);
+            }
+        }
+    }
+
+    private void signal(Kind kind, Long id, double value) {
+        AfterCommit.run(() -> signals.add(new Signal(kind, id, value)));
+    }
+
+    private void addCounts(PopularityScores target, Kind kind, String sql, double weight) {
+        jdbcTemplate.query(sql, (RowCallbackHandler) row -> target.addHeld(kind, row.getLong(1), row.getLong(2) * weight));
+    }
+
+    // Reads play_events past the given id and returns the last id read.
+    private long addPlays(PopularityScores target, long after) {
+        while (true) {
+            long[] last = { after };
+            int[] read = { 0 };
+            jdbcTemplate.query("SELECT id, track_id, played_at FROM play_events WHERE id > ? ORDER BY id LIMIT ?",
+                    (RowCallbackHandler) row -> {
+                        last[0] = row.getLong(1);
+                        read[0]++;
+                        target.addDecayed(Kind.TRACK, row.getLong(2),
+                                PLAY_WEIGHT * target.weightAt(row.getTimestamp(3).getTime()));
+                    }, after, PAGE);
+            after = last[0];
+            if (read[0] < PAGE) {
+                return after;
+            }
+        }
+    }
+
+    // Adds each scored track's score to its album and artists.
+    private void rollUp(PopularityScores target) {
+        long[] trackIds = target.ids(Kind.TRACK);
+        for (int from = 0; from < trackIds.length; from += ID_CHUNK) {
+            List<Long> chunk = Arrays.stream(trackIds, from, Math.min(from + ID_CHUNK, trackIds.length)).boxed().toList();
+            Map<String, List<Long>> params = Map.of("ids", chunk);
+            namedJdbcTemplate.query("SELECT id, album_id FROM tracks WHERE album_id IS NOT NULL AND id IN (:ids)",
+                    params, (RowCallbackHandler) row -> addTrack(target, Kind.ALBUM, row.getLong(2), row.getLong(1)));
+            namedJdbcTemplate.query("SELECT track_id, artist_id FROM track_artists WHERE track_id IN (:ids)",
+                    params, (RowCallbackHandler) row -> addTrack(target, Kind.ARTIST, row.getLong(2), row.getLong(1)));
+        }
+    }
+
+    private static void addTrack(PopularityScores target, Kind kind, long ownerId, long trackId) {
+        target.addDecayed(kind, ownerId, target.decayed(Kind.TRACK, trackId));
+        target.addHeld(kind, ownerId, target.held(Kind.TRACK, trackId));
+    }
+
+    // Walks the whole table, so rows that lost all their signals drop to 0.
+    private int rewriteAll(PopularityScores source, Kind kind, double nowWeight) {
+        double max = source.max(kind, nowWeight);
+        String select = "SELECT id, popularity FROM " + TABLES[kind.ordinal()] + " WHERE id > ? ORDER BY id LIMIT ?";
+        int rewritten = 0;
+        long after = 0;
+        while (true) {
+            List<Object[]> updates = new ArrayList<>();
+            long[] last = { after };
+            int[] read = { 0 };
+            jdbcTemplate.query(select, (RowCallbackHandler) row -> {
+                long id = row.getLong(1);
+                int current = row.getInt(2);
+                boolean unset = row.wasNull();
+                int popularity = PopularityScores.scale(source.score(kind, id, nowWeight), max);
+                if (unset || popularity != current) {
+                    updates.add(new Object[] { popularity, id, popularity });
+                }
+                last[0] = id;
+                read[0]++;
+            }, after, PAGE);
+            rewritten += write(kind, updates).size();
+            after = last[0];
+            if (read[0] < PAGE) {
+                return rewritten;
+            }
+        }
+    }
+
+    // Returns the updates that changed a row and evicts just those rows from the entity cache.
+    private List<Object[]> write(Kind kind, List<Object[]> updates) {
+        if (updates.isEmpty()) {
+            return List.of();
+        }
+        int[] counts = jdbcTemplate.batchUpdate(String.format(UPDATE_POPULARITY, TABLES[kind.ordinal()]), updates);
+        List<Object[]> rewritten = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                rewritten.add(updates.get(i));
+            }
+        }
+        catalogCache.evictEntities(ENTITIES[kind.ordinal()],
+                rewritten.stream().map(update -> (Long) update[1]).toList());
+        return rewritten;
+    }
+
+    private void rerank(Kind kind, Long id, Integer popularity) {
+        switch (kind) {
+            case TRACK -> leaderboards.trackRanked(id, popularity);
+            case ARTIST -> leaderboards.artistRanked(id, popularity);
+            default -> {
+            }
+        }
+    }
+}
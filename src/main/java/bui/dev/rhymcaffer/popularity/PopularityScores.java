@@ -0,0 +1,106 @@
+package bui.dev.rhymcaffer.popularity;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Raw popularity scores for tracks, albums and artists. Plays are forward-decayed: a play at
+ * time t adds exp(lambda * (t - landmark)), so sums never need rescaling as time passes and
+ * dividing by the same factor for "now" yields the decayed value. Saves and follows carry no
+ * timestamp and count in full while they last. Both parts are plain sums, so a track's change
+ * rolls up to its album and artists as the same delta.
+ */
+final class PopularityScores {
+
+    enum Kind {
+        TRACK, ALBUM, ARTIST
+    }
+
+    private final Duration halfLife;
+    private final double lambdaPerMilli;
+    private final long landmark;
+    private final ScoreTable[] decayed = new ScoreTable[Kind.values().length];
+    private final ScoreTable[] held = new ScoreTable[Kind.values().length];
+
+    // Sized for the tracks that have plays and saves; albums and artists start at a fraction of
+    // that, since several tracks roll up into each, and grow if the guess is short.
+    PopularityScores(Duration halfLife, long landmark, int playedTracks, int savedTracks) {
+        this.halfLife = halfLife;
+        this.lambdaPerMilli = Math.log(2) / halfLife.toMillis();
+        this.landmark = landmark;
+        for (Kind kind : Kind.values()) {
+            int share = kind == Kind.TRACK ? 1 : 8;
+            decayed[kind.ordinal()] = new ScoreTable(playedTracks / share);
+            held[kind.ordinal()] = new ScoreTable(savedTracks / share);
+        }
+    }
+
+    // An empty set of scores on the same landmark, for collecting deltas to merge.
+    PopularityScores withSameScale(int expectedTracks) {
+        return new PopularityScores(halfLife, landmark, expectedTracks, expectedTracks);
+    }
+
+    void merge(PopularityScores delta) {
+        for (Kind kind : Kind.values()) {
+            delta.decayed[kind.ordinal()].forEach((id, value) -> addDecayed(kind, id, value));
+            delta.held[kind.ordinal()].forEach((id, value) -> addHeld(kind, id, value));
+        }
+    }
+
+    // Every id with a score of either kind, ascending.
+    long[] ids(Kind kind) {
+        long[] decayedIds = decayed[kind.ordinal()].ids();
+        long[] heldIds = held[kind.ordinal()].ids();
+        long[] all = Arrays.copyOf(decayedIds, decayedIds.length + heldIds.length);
+        System.arraycopy(heldIds, 0, all, decayedIds.length, heldIds.length);
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[unique++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    // What a signal at this instant is worth relative to one at the landmark.
+    double weightAt(long epochMilli) {
+        return Math.exp(lambdaPerMilli * (epochMilli - landmark));
+    }
+
+    void addDecayed(Kind kind, long id, double value) {
+        decayed[kind.ordinal()].add(id, value);
+    }
+
+    void addHeld(Kind kind, long id, double value) {
+        held[kind.ordinal()].add(id, value);
+    }
+
+    double decayed(Kind kind, long id) {
+        return decayed[kind.ordinal()].get(id);
+    }
+
+    double held(Kind kind, long id) {
+        return held[kind.ordinal()].get(id);
+    }
+
+    double score(Kind kind, long id, double nowWeight) {
+        return decayed(kind, id) / nowWeight + held(kind, id);
+    }
+
+    double max(Kind kind, double nowWeight) {
+        double[] max = {0};
+        decayed[kind.ordinal()].forEach((id, value) -> max[0] = Math.max(max[0], score(kind, id, nowWeight)));
+        held[kind.ordinal()].forEach((id, value) -> max[0] = Math.max(max[0], score(kind, id, nowWeight)));
+        return max[0];
+    }
+
+    // 0 to 100 on a log scale, so a long tail of rarely played tracks still spreads out;
+    // anything with a positive score gets at least 1.
+    static int scale(double score, double max) {
+        if (score <= 0 || max <= 0) {
+            return 0;
+        }
+        return (int) Math.max(1, Math.min(100, Math.round(100 * Math.log1p(score) / Math.log1p(max))));
+    }
+}
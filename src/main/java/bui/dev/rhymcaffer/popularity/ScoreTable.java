@@ -0,0 +1,90 @@
+package bui.dev.rhymcaffer.popularity;
+
+// Open-addressing map from a positive id to a double, so ten million scores take two flat
+// arrays instead of ten million boxed entries. Kept at most three-quarters full, and sized to
+// exactly that for the expected ids rather than to a power of two. Not thread-safe;
+// PopularityEngine guards access.
+final class ScoreTable {
+
+    interface Visitor {
+        void accept(long id, double value);
+    }
+
+    private static final long EMPTY = 0;
+
+    private long[] ids;
+    private double[] values;
+    private int size;
+
+    ScoreTable(int expected) {
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, expected) * 4L / 3 + 1);
+        ids = new long[capacity];
+        values = new double[capacity];
+    }
+
+    void add(long id, double delta) {
+        int slot = slot(ids, id);
+        if (ids[slot] == EMPTY) {
+            ids[slot] = id;
+            if (++size * 4L > ids.length * 3L) {
+                grow();
+                slot = slot(ids, id);
+            }
+        }
+        values[slot] += delta;
+    }
+
+    double get(long id) {
+        int slot = slot(ids, id);
+        return ids[slot] == EMPTY ? 0 : values[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] ids() {
+        long[] present = new long[size];
+        int next = 0;
+        for (long id : ids) {
+            if (id != EMPTY) {
+                present[next++] = id;
+            }
+        }
+        return present;
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != EMPTY) {
+                visitor.accept(ids[i], values[i]);
+            }
+        }
+    }
+
+    private void grow() {
+        long[] oldIds = ids;
+        double[] oldValues = values;
+        ids = new long[oldIds.length * 2];
+        values = new double[oldIds.length * 2];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY) {
+                int slot = slot(ids, oldIds[i]);
+                ids[slot] = oldIds[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // The high 32 bits of the hash scaled to the length, so any length works without a modulo.
+    private static int slot(long[] ids, long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        int slot = (int) (((hash >>> 32) * ids.length) >>> 32);
+        while (ids[slot] != EMPTY && ids[slot] != id) {
+            if (++slot == ids.length) {
+                slot = 0;
+            }
+        }
+        return slot;
+    }
+}
@@ -1,16 +1,64 @@
 package bui.dev.rhymcaffer.repository;
 
 import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.repository.projection.AlbumRow;
+import bui.dev.rhymcaffer.repository.projection.IdPair;
+import bui.dev.rhymcaffer.repository.projection.NameView;
+import bui.dev.rhymcaffer.repository.projection.VersionRow;
+import bui.dev.rhymcaffer.repository.projection.VersionSum;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface AlbumRepository extends JpaRepository<Album, Long> {
-    List<Album> findByNameContainingIgnoreCase(String name);
+    List<Album> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT a.id AS id, a.name AS name FROM Album a WHERE a.id > :after ORDER BY a.id")
+    List<NameView> findNamesAfter(@Param("after") Long after, Limit limit);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.AlbumRow(a.id, a.name, a.imageUrl, a.description, "
+            + "a.popularity, a.releaseDate, a.releaseDatePrecision, a.albumType, a.createdAt, a.updatedAt) "
+            + "FROM Album a WHERE a.id > :after ORDER BY a.id")
+    List<AlbumRow> findRowsAfter(@Param("after") Long after, Limit limit);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.IdPair(a.id, ar.id) "
+            + "FROM Album a JOIN a.artists ar WHERE a.id IN :ids")
+    List<IdPair> findArtistIdPairs(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id FROM Album a WHERE a.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionRow(a.version, a.updatedAt) "
+            + "FROM Album a WHERE a.id = :id")
+    Optional<VersionRow> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionSum(COUNT(a), "
+            + "COALESCE(SUM(MOD(a.id * 2654435761L, 2147483647L) * (a.version + 1)), 0L)) "
+            + "FROM Album a JOIN a.artists ar WHERE ar.id = :artistId")
+    VersionSum sumVersionsByArtist(@Param("artistId") Long artistId);
+
+    // For changes the album row does not own, such as its followers. Native and declared against
+    // album_followers so Hibernate does not drop the whole Album cache region; the caller evicts
+    // just this album.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "album_followers"))
+    @Query(value = "UPDATE albums SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = :id",
+            nativeQuery = true)
+    int bumpVersion(@Param("id") Long id);
 
     @Query("SELECT a FROM Album a JOIN a.artists ar WHERE ar.id = :artistId")
     List<Album> findByArtistId(@Param("artistId") Long artistId);
@@ -18,11 +66,30 @@ public interface AlbumRepository extends JpaRepository<Album, Long> {
     @Query("SELECT a FROM Album a JOIN a.followers f WHERE f.id = :userId")
     List<Album> findSavedAlbums(@Param("userId") Long userId);
 
-    @Query("SELECT a FROM Album a WHERE a.releaseDate >= :date ORDER BY a.releaseDate DESC")
-    List<Album> findNewReleases(@Param("date") String date);
-
     List<Album> findByArtists_Id(Long artistId);
 
-    List<Album> findByReleaseDateAfter(String date);
+    // Newest first, walking idx_albums_release_date backwards.
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.AlbumRow(a.id, a.name, a.imageUrl, a.description, "
+            + "a.popularity, a.releaseDate, a.releaseDatePrecision, a.albumType, a.createdAt, a.updatedAt) "
+            + "FROM Album a WHERE a.releaseDate <= :today ORDER BY a.releaseDate DESC, a.id DESC")
+    List<AlbumRow> findReleasedRows(@Param("today") LocalDate today, Pageable page);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.AlbumRow(a.id, a.name, a.imageUrl, a.description, "
+            + "a.popularity, a.releaseDate, a.releaseDatePrecision, a.albumType, a.createdAt, a.updatedAt) "
+            + "FROM Album a WHERE a.id IN :ids AND a.releaseDate <= :today ORDER BY a.releaseDate DESC, a.id DESC")
+    List<AlbumRow> findReleasedRowsIn(@Param("today") LocalDate today, @Param("ids") Collection<Long> ids,
+            Pageable page);
+
+    @Query(value = "SELECT album_id FROM album_followers WHERE user_id = :userId", nativeQuery = true)
+    List<Long> findSavedAlbumIds(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "album_followers"))
+    @Query(value = "INSERT IGNORE INTO album_followers (album_id, user_id) VALUES (:albumId, :userId)", nativeQuery = true)
+    int addFollower(@Param("albumId") Long albumId, @Param("userId") Long userId);
 
-}
\ No newline at end of file
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "album_followers"))
+    @Query(value = "DELETE FROM album_followers WHERE album_id = :albumId AND user_id = :userId", nativeQuery = true)
+    int removeFollower(@Param("albumId") Long albumId, @Param("userId") Long userId);
+}
@@ -1,20 +1,62 @@
 package bui.dev.rhymcaffer.repository;
 
 import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+import bui.dev.rhymcaffer.repository.projection.NameView;
+import bui.dev.rhymcaffer.repository.projection.VersionRow;
+import bui.dev.rhymcaffer.repository.projection.VersionSum;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface ArtistRepository extends JpaRepository<Artist, Long> {
-    List<Artist> findByNameContainingIgnoreCase(String name);
+    List<Artist> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT a.id AS id, a.name AS name FROM Artist a WHERE a.id > :after ORDER BY a.id")
+    List<NameView> findNamesAfter(@Param("after") Long after, Limit limit);
+
+    @Query("SELECT a.id FROM Artist a WHERE a.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionRow(a.version, a.updatedAt) "
+            + "FROM Artist a WHERE a.id = :id")
+    Optional<VersionRow> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionSum(COUNT(a), "
+            + "COALESCE(SUM(MOD(a.id * 2654435761L, 2147483647L) * (a.version + 1)), 0L)) "
+            + "FROM Track t JOIN t.artists a WHERE t.id = :trackId")
+    VersionSum sumVersionsByTrack(@Param("trackId") Long trackId);
     
-    @Query("SELECT a FROM Artist a WHERE a.popularity >= :minPopularity ORDER BY a.popularity DESC")
-    List<Artist> findPopularArtists(@Param("minPopularity") int minPopularity);
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.IdPopularity(a.id, a.popularity) FROM Artist a "
+            + "WHERE a.popularity < :popularity OR (a.popularity = :popularity AND a.id > :id) "
+            + "ORDER BY a.popularity DESC, a.id")
+    List<IdPopularity> findRankedAfter(@Param("popularity") int popularity, @Param("id") long id, Limit limit);
     
     @Query("SELECT a FROM Artist a JOIN a.followers f WHERE f.id = :userId")
     List<Artist> findFollowedArtists(@Param("userId") Long userId);
-} 
\ No newline at end of file
+
+    @Query(value = "SELECT artist_id FROM artist_followers WHERE user_id = :userId", nativeQuery = true)
+    List<Long> findFollowedArtistIds(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "artist_followers"))
+    @Query(value = "INSERT IGNORE INTO artist_followers (artist_id, user_id) VALUES (:artistId, :userId)", nativeQuery = true)
+    int addFollower(@Param("artistId") Long artistId, @Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "artist_followers"))
+    @Query(value = "DELETE FROM artist_followers WHERE artist_id = :artistId AND user_id = :userId", nativeQuery = true)
+    int removeFollower(@Param("artistId") Long artistId, @Param("userId") Long userId);
+}
@@ -0,0 +1,12 @@
+package bui.dev.rhymcaffer.repository;
+
+import bui.dev.rhymcaffer.model.ChartEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChartEntryRepository extends JpaRepository<ChartEntry, Long> {
+    List<ChartEntry> findBySnapshotIdOrderByPosition(Long snapshotId);
+}
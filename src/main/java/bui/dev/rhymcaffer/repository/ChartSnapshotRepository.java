@@ -0,0 +1,18 @@
+package bui.dev.rhymcaffer.repository;
+
+import bui.dev.rhymcaffer.model.Chart;
+import bui.dev.rhymcaffer.model.ChartSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface ChartSnapshotRepository extends JpaRepository<ChartSnapshot, Long> {
+    Optional<ChartSnapshot> findByChartAndMarketAndChartDate(Chart chart, String market, LocalDate chartDate);
+
+    Optional<ChartSnapshot> findFirstByChartAndMarketOrderByChartDateDesc(Chart chart, String market);
+
+    boolean existsByChartAndMarketAndChartDate(Chart chart, String market, LocalDate chartDate);
+}
@@ -1,16 +1,30 @@
 package bui.dev.rhymcaffer.repository;
 
 import bui.dev.rhymcaffer.model.Playlist;
+import bui.dev.rhymcaffer.repository.projection.IdCount;
+import bui.dev.rhymcaffer.repository.projection.IdSnapshot;
+import bui.dev.rhymcaffer.repository.projection.NameView;
+import bui.dev.rhymcaffer.repository.projection.VersionRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
-    List<Playlist> findByNameContainingIgnoreCase(String name);
+    List<Playlist> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT p.id AS id, p.name AS name FROM Playlist p WHERE p.id > :after ORDER BY p.id")
+    List<NameView> findNamesAfter(@Param("after") Long after, Limit limit);
 
     @Query("SELECT p FROM Playlist p WHERE p.owner.id = :userId")
     List<Playlist> findByOwnerId(@Param("userId") Long userId);
@@ -30,4 +44,30 @@ public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
 
     List<Playlist> findByIsPublicTrue();
 
-}
\ No newline at end of file
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionRow(p.snapshotId, p.updatedAt) "
+            + "FROM Playlist p WHERE p.id = :id")
+    Optional<VersionRow> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.IdSnapshot(p.id, p.snapshotId) "
+            + "FROM Playlist p JOIN p.followers f WHERE f.id = :userId ORDER BY p.id")
+    List<IdSnapshot> findFollowedSnapshots(@Param("userId") Long userId);
+
+    // Returns 0 when the playlist does not exist, so the add paths use it as their existence check.
+    @Modifying
+    @Query("UPDATE Playlist p SET p.snapshotId = p.snapshotId + 1, p.updatedAt = LOCAL DATETIME WHERE p.id = :id")
+    int bumpSnapshot(@Param("id") Long id);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.IdCount(p.id, COUNT(f)) "
+            + "FROM Playlist p JOIN p.followers f WHERE p.id IN :playlistIds GROUP BY p.id")
+    List<IdCount> countFollowers(@Param("playlistIds") Collection<Long> playlistIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "playlist_followers"))
+    @Query(value = "INSERT IGNORE INTO playlist_followers (playlist_id, user_id) VALUES (:playlistId, :userId)", nativeQuery = true)
+    int addFollower(@Param("playlistId") Long playlistId, @Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "playlist_followers"))
+    @Query(value = "DELETE FROM playlist_followers WHERE playlist_id = :playlistId AND user_id = :userId", nativeQuery = true)
+    int removeFollower(@Param("playlistId") Long playlistId, @Param("userId") Long userId);
+}
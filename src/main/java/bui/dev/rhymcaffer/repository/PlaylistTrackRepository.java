@@ -0,0 +1,68 @@
+package bui.dev.rhymcaffer.repository;
+
+import bui.dev.rhymcaffer.dto.response.PlaylistTrackResponse;
+import bui.dev.rhymcaffer.model.PlaylistTrack;
+import bui.dev.rhymcaffer.repository.projection.IdCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlaylistTrackRepository extends JpaRepository<PlaylistTrack, Long> {
+
+    // Entries in playlist order, read as one range of the (playlist_id, position) index.
+    @Query("SELECT new bui.dev.rhymcaffer.dto.response.PlaylistTrackResponse(pt.id, pt.position, pt.addedAt, "
+            + "t.id, t.name, t.imageUrl, t.durationMs, t.explicit, t.album.id) "
+            + "FROM PlaylistTrack pt JOIN pt.track t WHERE pt.playlist.id = :playlistId "
+            + "ORDER BY pt.position, pt.id")
+    List<PlaylistTrackResponse> findPage(@Param("playlistId") Long playlistId, Pageable page);
+
+    @Query("SELECT pt.position FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId AND pt.id <> :excludedId "
+            + "ORDER BY pt.position, pt.id")
+    List<Long> findPositions(@Param("playlistId") Long playlistId, @Param("excludedId") Long excludedId,
+            Pageable page);
+
+    @Query("SELECT MAX(pt.position) FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId")
+    Optional<Long> findMaxPosition(@Param("playlistId") Long playlistId);
+
+    @Query("SELECT pt.id FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId ORDER BY pt.position, pt.id")
+    List<Long> findIdsInOrder(@Param("playlistId") Long playlistId);
+
+    boolean existsByIdAndPlaylist_Id(Long id, Long playlistId);
+
+    long countByPlaylist_Id(Long playlistId);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.IdCount(pt.playlist.id, COUNT(pt)) "
+            + "FROM PlaylistTrack pt WHERE pt.playlist.id IN :playlistIds GROUP BY pt.playlist.id")
+    List<IdCount> countByPlaylistIds(@Param("playlistIds") Collection<Long> playlistIds);
+
+    @Modifying
+    @Query("UPDATE PlaylistTrack pt SET pt.position = :position WHERE pt.id = :id")
+    int setPosition(@Param("id") Long id, @Param("position") long position);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId AND pt.track.id = :trackId")
+    int deleteTrack(@Param("playlistId") Long playlistId, @Param("trackId") Long trackId);
+
+    // Pushes every entry from position onwards further down, making room for a batch insert.
+    @Modifying
+    @Query("UPDATE PlaylistTrack pt SET pt.position = pt.position + :shift "
+            + "WHERE pt.playlist.id = :playlistId AND pt.position >= :position")
+    int shiftFrom(@Param("playlistId") Long playlistId, @Param("position") long position,
+            @Param("shift") long shift);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId AND pt.track.id IN :trackIds")
+    int deleteTracks(@Param("playlistId") Long playlistId, @Param("trackIds") Collection<Long> trackIds);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistTrack pt WHERE pt.playlist.id = :playlistId")
+    int deleteAllInPlaylist(@Param("playlistId") Long playlistId);
+}
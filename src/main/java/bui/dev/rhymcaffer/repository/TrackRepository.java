@@ -1,16 +1,62 @@
 package bui.dev.rhymcaffer.repository;
 
+import bui.dev.rhymcaffer.dto.response.TrackListResponse;
 import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+import bui.dev.rhymcaffer.repository.projection.NameView;
+import bui.dev.rhymcaffer.repository.projection.VersionRow;
+import bui.dev.rhymcaffer.repository.projection.VersionSum;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface TrackRepository extends JpaRepository<Track, Long> {
-    List<Track> findByNameContainingIgnoreCase(String name);
+    List<Track> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT t.id FROM Track t WHERE t.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionRow(t.version, t.updatedAt) "
+            + "FROM Track t WHERE t.id = :id")
+    Optional<VersionRow> findVersionById(@Param("id") Long id);
+
+    // Fingerprints of the tracks embedded in album and artist responses.
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionSum(COUNT(t), "
+            + "COALESCE(SUM(MOD(t.id * 2654435761L, 2147483647L) * (t.version + 1)), 0L)) "
+            + "FROM Track t WHERE t.album.id = :albumId")
+    VersionSum sumVersionsByAlbum(@Param("albumId") Long albumId);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionSum(COUNT(t), "
+            + "COALESCE(SUM(MOD(t.id * 2654435761L, 2147483647L) * (t.version + 1)), 0L)) "
+            + "FROM Track t JOIN t.artists a WHERE a.id = :artistId")
+    VersionSum sumVersionsByArtist(@Param("artistId") Long artistId);
+
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.VersionSum(COUNT(t), "
+            + "COALESCE(SUM(MOD(t.id * 2654435761L, 2147483647L) * (t.version + 1)), 0L)) "
+            + "FROM Track t JOIN t.album al JOIN al.artists a WHERE a.id = :artistId")
+    VersionSum sumVersionsByAlbumArtist(@Param("artistId") Long artistId);
+
+    @Query("SELECT t.id AS id, t.name AS name FROM Track t WHERE t.id > :after ORDER BY t.id")
+    List<NameView> findNamesAfter(@Param("after") Long after, Limit limit);
+
+    @Query("SELECT new bui.dev.rhymcaffer.dto.response.TrackListResponse(t.id, t.name, t.imageUrl, t.durationMs, "
+            + "t.popularity, t.trackUrl, t.trackNumber, t.explicit, t.isrc, t.album.id, t.createdAt, t.updatedAt) "
+            + "FROM Track t WHERE t.id > :after ORDER BY t.id")
+    List<TrackListResponse> findListRowsAfter(@Param("after") Long after, Limit limit);
 
     @Query("SELECT t FROM Track t JOIN t.artists a WHERE a.id = :artistId")
     List<Track> findByArtistId(@Param("artistId") Long artistId);
@@ -21,17 +67,62 @@ public interface TrackRepository extends JpaRepository<Track, Long> {
     @Query("SELECT t FROM Track t JOIN t.savedByUsers u WHERE u.id = :userId")
     List<Track> findSavedTracks(@Param("userId") Long userId);
 
-    @Query("SELECT t FROM Track t WHERE t.popularity >= :minPopularity ORDER BY t.popularity DESC")
-    List<Track> findPopularTracks(@Param("minPopularity") int minPopularity);
+    // Leaderboard order past a cursor, along idx_tracks_popularity.
+    @Query("SELECT new bui.dev.rhymcaffer.repository.projection.IdPopularity(t.id, t.popularity) FROM Track t "
+            + "WHERE t.popularity < :popularity OR (t.popularity = :popularity AND t.id > :id) "
+            + "ORDER BY t.popularity DESC, t.id")
+    List<IdPopularity> findRankedAfter(@Param("popularity") int popularity, @Param("id") long id, Limit limit);
 
+    @EntityGraph(attributePaths = {"artists", "album"})
     List<Track> findByArtists_Id(Long artistId);
 
+    @EntityGraph(attributePaths = {"artists", "album"})
     List<Track> findByAlbum_Id(Long albumId);
 
-    List<Track> findByPopularityGreaterThanEqual(int minPopularity);
-
+    @EntityGraph(attributePaths = {"artists", "album"})
     List<Track> findBySavedByUsers_Id(Long userId);
 
-    @Query("SELECT t FROM Track t JOIN FETCH t.artists WHERE t.id = :id")
+    @EntityGraph(attributePaths = {"artists", "album"})
+    List<Track> findAllWithArtistsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT t FROM Track t LEFT JOIN FETCH t.artists WHERE t.id = :id")
     Track findByIdWithArtists(@Param("id") Long id);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT track_id FROM user_saved_tracks WHERE user_id = :userId", nativeQuery = true)
+    List<Long> findSavedTrackIds(@Param("userId") Long userId);
+
+    // Join-table writes that never initialize the owning collection; INSERT IGNORE keeps them idempotent
+    // and the native-spaces hint limits second-level cache invalidation to the table actually touched.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_saved_tracks"))
+    @Query(value = "INSERT IGNORE INTO user_saved_tracks (track_id, user_id) VALUES (:trackId, :userId)", nativeQuery = true)
+    int addSavedByUser(@Param("trackId") Long trackId, @Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "save_events"))
+    @Query(value = "INSERT INTO save_events (user_id, track_id, saved_at) VALUES (:userId, :trackId, :savedAt)",
+            nativeQuery = true)
+    int addSaveEvent(@Param("trackId") Long trackId, @Param("userId") Long userId,
+            @Param("savedAt") LocalDateTime savedAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_saved_tracks"))
+    @Query(value = "DELETE FROM user_saved_tracks WHERE track_id = :trackId AND user_id = :userId", nativeQuery = true)
+    int removeSavedByUser(@Param("trackId") Long trackId, @Param("userId") Long userId);
+
+    // An unsave withdraws the save from the charts, so toggling cannot stack save events.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "save_events"))
+    @Query(value = "DELETE FROM save_events WHERE track_id = :trackId AND user_id = :userId", nativeQuery = true)
+    int removeSaveEvents(@Param("trackId") Long trackId, @Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tracks"))
+    @Query(value = "UPDATE tracks SET album_id = :albumId, version = version + 1 WHERE id = :trackId", nativeQuery = true)
+    int setAlbum(@Param("trackId") Long trackId, @Param("albumId") Long albumId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tracks"))
+    @Query(value = "UPDATE tracks SET album_id = NULL, version = version + 1 WHERE id = :trackId AND album_id = :albumId", nativeQuery = true)
+    int clearAlbum(@Param("trackId") Long trackId, @Param("albumId") Long albumId);
+}
@@ -1,17 +1,86 @@
 package bui.dev.rhymcaffer.repository;
 
+import bui.dev.rhymcaffer.dto.response.UserCardResponse;
 import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.repository.projection.UserCountsView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     List<User> findByUsernameContainingIgnoreCaseOrDisplayNameContainingIgnoreCase(String username, String displayName);
-} 
\ No newline at end of file
+
+    @Query("SELECT new bui.dev.rhymcaffer.dto.response.UserCardResponse(f.id, f.username, f.displayName, f.imageUrl) "
+            + "FROM User u JOIN u.followers f WHERE u.id = :userId AND f.id > :after ORDER BY f.id")
+    List<UserCardResponse> findFollowerCardsAfter(@Param("userId") Long userId, @Param("after") Long after, Limit limit);
+
+    @Query("SELECT new bui.dev.rhymcaffer.dto.response.UserCardResponse(f.id, f.username, f.displayName, f.imageUrl) "
+            + "FROM User u JOIN u.following f WHERE u.id = :userId AND f.id > :after ORDER BY f.id")
+    List<UserCardResponse> findFollowingCardsAfter(@Param("userId") Long userId, @Param("after") Long after, Limit limit);
+
+    @Query("SELECT new bui.dev.rhymcaffer.dto.response.UserCardResponse(u.id, u.username, u.displayName, u.imageUrl) "
+            + "FROM User u WHERE u.id IN :ids")
+    List<UserCardResponse> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Saved albums and followed artists live in the tables the save and follow endpoints write.
+    @Query(value = "SELECT u.id AS userId, "
+            + "(SELECT COUNT(*) FROM playlists p WHERE p.owner_id = u.id) AS playlistCount, "
+            + "(SELECT COUNT(*) FROM user_saved_tracks s WHERE s.user_id = u.id) AS savedTrackCount, "
+            + "(SELECT COUNT(*) FROM album_followers s WHERE s.user_id = u.id) AS savedAlbumCount, "
+            + "(SELECT COUNT(*) FROM artist_followers s WHERE s.user_id = u.id) AS followedArtistCount, "
+            + "(SELECT COUNT(*) FROM user_followers f WHERE f.following_id = u.id) AS followerCount, "
+            + "(SELECT COUNT(*) FROM user_followers f WHERE f.follower_id = u.id) AS followingCount "
+            + "FROM users u WHERE u.id IN (:ids)", nativeQuery = true)
+    List<UserCountsView> findCounts(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM playlists WHERE owner_id = :userId AND id > :after "
+            + "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findPlaylistIdsAfter(@Param("userId") Long userId, @Param("after") long after, @Param("limit") int limit);
+
+    @Query(value = "SELECT track_id FROM user_saved_tracks WHERE user_id = :userId AND track_id > :after "
+            + "ORDER BY track_id LIMIT :limit", nativeQuery = true)
+    List<Long> findSavedTrackIdsAfter(@Param("userId") Long userId, @Param("after") long after, @Param("limit") int limit);
+
+    @Query(value = "SELECT album_id FROM album_followers WHERE user_id = :userId AND album_id > :after "
+            + "ORDER BY album_id LIMIT :limit", nativeQuery = true)
+    List<Long> findSavedAlbumIdsAfter(@Param("userId") Long userId, @Param("after") long after, @Param("limit") int limit);
+
+    @Query(value = "SELECT artist_id FROM artist_followers WHERE user_id = :userId AND artist_id > :after "
+            + "ORDER BY artist_id LIMIT :limit", nativeQuery = true)
+    List<Long> findFollowedArtistIdsAfter(@Param("userId") Long userId, @Param("after") long after, @Param("limit") int limit);
+
+    @Query(value = "SELECT follower_id FROM user_followers WHERE following_id = :userId AND follower_id > :after "
+            + "ORDER BY follower_id LIMIT :limit", nativeQuery = true)
+    List<Long> findFollowerIdsAfter(@Param("userId") Long userId, @Param("after") long after, @Param("limit") int limit);
+
+    @Query(value = "SELECT following_id FROM user_followers WHERE follower_id = :userId AND following_id > :after "
+            + "ORDER BY following_id LIMIT :limit", nativeQuery = true)
+    List<Long> findFollowingIdsAfter(@Param("userId") Long userId, @Param("after") long after, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_followers"))
+    @Query(value = "INSERT IGNORE INTO user_followers (following_id, follower_id) VALUES (:userId, :followerId)", nativeQuery = true)
+    int addFollower(@Param("userId") Long userId, @Param("followerId") Long followerId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_followers"))
+    @Query(value = "DELETE FROM user_followers WHERE following_id = :userId AND follower_id = :followerId", nativeQuery = true)
+    int removeFollower(@Param("userId") Long userId, @Param("followerId") Long followerId);
+}
@@ -0,0 +1,19 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record AlbumRow(
+        Long id,
+        String name,
+        String imageUrl,
+        String description,
+        Integer popularity,
+        LocalDate releaseDate,
+        ReleaseDatePrecision releaseDatePrecision,
+        String albumType,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,5 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+// A grouped count, e.g. (playlist id, number of entries).
+public record IdCount(Long id, long count) {
+}
@@ -0,0 +1,5 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+// One row of a join table, e.g. (album id, artist id).
+public record IdPair(Long ownerId, Long targetId) {
+}
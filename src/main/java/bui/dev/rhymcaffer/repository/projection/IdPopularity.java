@@ -0,0 +1,5 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+// A row's place in a popularity ranking, e.g. (track id, popularity).
+public record IdPopularity(Long id, int popularity) {
+}
@@ -0,0 +1,5 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+// A row id with its snapshot id, enough to tell whether a cached copy is stale.
+public record IdSnapshot(Long id, long snapshotId) {
+}
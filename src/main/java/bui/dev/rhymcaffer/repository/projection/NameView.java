@@ -0,0 +1,7 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+public interface NameView {
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,17 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+public interface UserCountsView {
+    Long getUserId();
+
+    long getPlaylistCount();
+
+    long getSavedTrackCount();
+
+    long getSavedAlbumCount();
+
+    long getFollowedArtistCount();
+
+    long getFollowerCount();
+
+    long getFollowingCount();
+}
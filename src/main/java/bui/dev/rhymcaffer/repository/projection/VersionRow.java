@@ -0,0 +1,7 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+import java.time.LocalDateTime;
+
+// A version counter and last modification time, either of one row or summed over related rows.
+public record VersionRow(Long version, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,7 @@
+package bui.dev.rhymcaffer.repository.projection;
+
+// A fingerprint of a set of related rows: how many there are, and the sum of a hash of each id
+// weighted by version + 1. Editing a row only ever raises the digest, and swapping one member for
+// another moves it unless the two hashes happen to collide.
+public record VersionSum(Long members, Long digest) {
+}
@@ -0,0 +1,81 @@
+package bui.dev.rhymcaffer.search;
+
+import bui.dev.rhymcaffer.repository.AlbumRepository;
+import bui.dev.rhymcaffer.repository.ArtistRepository;
+import bui.dev.rhymcaffer.repository.PlaylistRepository;
+import bui.dev.rhymcaffer.repository.TrackRepository;
+import bui.dev.rhymcaffer.repository.projection.NameView;
+import bui.dev.rhymcaffer.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Name search over the catalog, served from memory. Built from the database once the
+ * application is ready and kept current by the services' create, update and delete paths.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSearchIndex {
+
+    public enum Catalog {
+        TRACK, ALBUM, ARTIST, PLAYLIST
+    }
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final TrackRepository trackRepository;
+    private final AlbumRepository albumRepository;
+    private final ArtistRepository artistRepository;
+    private final PlaylistRepository playlistRepository;
+
+    private final Map<Catalog, TrigramIndex> indexes = new EnumMap<>(Map.of(
+            Catalog.TRACK, new TrigramIndex(),
+            Catalog.ALBUM, new TrigramIndex(),
+            Catalog.ARTIST, new TrigramIndex(),
+            Catalog.PLAYLIST, new TrigramIndex()));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        load(Catalog.TRACK, trackRepository::findNamesAfter);
+        load(Catalog.ALBUM, albumRepository::findNamesAfter);
+        load(Catalog.ARTIST, artistRepository::findNamesAfter);
+        load(Catalog.PLAYLIST, playlistRepository::findNamesAfter);
+    }
+
+    public List<Long> search(Catalog catalog, String query, int limit) {
+        return indexes.get(catalog).search(query, limit);
+    }
+
+    public void put(Catalog catalog, Long id, String name) {
+        AfterCommit.run(() -> indexes.get(catalog).put(id, name));
+    }
+
+    public void remove(Catalog catalog, Long id) {
+        AfterCommit.run(() -> indexes.get(catalog).remove(id));
+    }
+
+    private void load(Catalog catalog, BiFunction<Long, Limit, List<NameView>> page) {
+        TrigramIndex index = indexes.get(catalog);
+        index.clear();
+        long after = 0L;
+        List<NameView> rows;
+        do {
+            rows = page.apply(after, Limit.of(LOAD_BATCH_SIZE));
+            for (NameView row : rows) {
+                index.put(row.getId(), row.getName());
+                after = row.getId();
+            }
+        } while (rows.size() == LOAD_BATCH_SIZE);
+        log.info("Search index for {} built with {} entries", catalog, index.size());
+    }
+}
@@ -0,0 +1,277 @@
+package bui.dev.rhymcaffer.search;
+
+import bui.dev.rhymcaffer.service.Pagination;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Case- and accent-insensitive substring index over entity names.
+ * Every trigram of a normalized name maps to a posting list of entity ids; a query
+ * intersects the postings of its own trigrams, so the candidates are exactly the
+ * names containing the query, found without looking at the rest of the catalog.
+ * Queries too short for a trigram read a set kept per one- and two-character
+ * substring, already in rank order, so they only touch the hits they return. Those
+ * sets keep only the best hits, enough for the largest page twice over, so their
+ * memory depends on the number of distinct substrings rather than on the catalog;
+ * one that removals drain below a page is refilled from the names.
+ */
+public class TrigramIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+    private final Map<String, ShortHits> shortPostings = new HashMap<>();
+    private final Map<Long, String> names = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int shortLimit;
+
+    public TrigramIndex() {
+        this(Pagination.MAX_LIMIT);
+    }
+
+    // The most hits a short query may ask for.
+    TrigramIndex(int shortLimit) {
+        this.shortLimit = shortLimit;
+    }
+
+    public void put(long id, String name) {
+        String normalized = normalize(name);
+        lock.writeLock().lock();
+        try {
+            String previous = names.put(id, normalized);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+            for (long trigram : trigrams(normalized)) {
+                postings.computeIfAbsent(trigram, key -> new LongPostingList()).add(id);
+            }
+            shortHits(id, normalized).forEach((key, hit) ->
+                    shortPostings.computeIfAbsent(key, k -> new ShortHits()).add(hit, 2 * shortLimit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(id);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            shortPostings.clear();
+            names.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Hits held for short queries across all keys.
+    int shortHitCount() {
+        lock.readLock().lock();
+        try {
+            return shortPostings.values().stream().mapToInt(hits -> hits.best.size()).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of names containing the query, best match first: exact name, name prefix,
+     * word prefix, then any substring; ties go to the shorter name, then the lower id.
+     */
+    public List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Max-heap on rank so the worst of the current top `limit` is evicted first.
+        PriorityQueue<Hit> top = new PriorityQueue<>(Hit.BEST_FIRST.reversed());
+        lock.readLock().lock();
+        try {
+            if (q.length() < 3) {
+                ShortHits hits = shortPostings.get(q);
+                return hits == null ? List.of() : hits.best.stream().limit(limit).map(Hit::id).toList();
+            } else {
+                long[] queryTrigrams = trigrams(q);
+                LongPostingList smallest = null;
+                List<LongPostingList> lists = new ArrayList<>(queryTrigrams.length);
+                for (long trigram : queryTrigrams) {
+                    LongPostingList list = postings.get(trigram);
+                    if (list == null) {
+                        return List.of();
+                    }
+                    lists.add(list);
+                    if (smallest == null || list.size() < smallest.size()) {
+                        smallest = list;
+                    }
+                }
+                for (int i = 0; i < smallest.size(); i++) {
+                    long id = smallest.get(i);
+                    if (inAll(lists, id)) {
+                        offer(top, id, names.get(id), q, limit);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(Hit.BEST_FIRST);
+        return hits.stream().map(Hit::id).toList();
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT).replace('đ', 'd')).replaceAll(" ").trim();
+    }
+
+    private void removePostings(long id, String name) {
+        for (long trigram : trigrams(name)) {
+            LongPostingList list = postings.get(trigram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+        shortHits(id, name).forEach((key, hit) -> {
+            ShortHits hits = shortPostings.get(key);
+            if (hits != null) {
+                hits.best.remove(hit);
+                if (hits.truncated && hits.best.size() < shortLimit) {
+                    refill(key, hits);
+                }
+                if (hits.best.isEmpty()) {
+                    shortPostings.remove(key);
+                }
+            }
+        });
+    }
+
+    // Rebuilds a drained set from every name holding the key; names has already dropped the removed one.
+    private void refill(String key, ShortHits hits) {
+        hits.best.clear();
+        hits.truncated = false;
+        names.forEach((id, name) -> {
+            int position = name.indexOf(key);
+            if (position >= 0) {
+                hits.add(new Hit(id, tier(name, key.length(), position), name.length()), 2 * shortLimit);
+            }
+        });
+    }
+
+    // One hit per distinct one- and two-character substring, ranked at its first occurrence like offer().
+    private static Map<String, Hit> shortHits(long id, String name) {
+        Map<String, Hit> hits = new HashMap<>();
+        for (int position = 0; position < name.length(); position++) {
+            for (int end = position + 1; end <= Math.min(position + 2, name.length()); end++) {
+                String key = name.substring(position, end);
+                if (!hits.containsKey(key)) {
+                    hits.put(key, new Hit(id, tier(name, key.length(), position), name.length()));
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static boolean inAll(List<LongPostingList> lists, long id) {
+        for (LongPostingList list : lists) {
+            if (!list.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void offer(PriorityQueue<Hit> top, long id, String name, String q, int limit) {
+        int position = name.indexOf(q);
+        if (position < 0) {
+            return;
+        }
+        Hit hit = new Hit(id, tier(name, q.length(), position), name.length());
+        if (top.size() < limit) {
+            top.add(hit);
+        } else if (Hit.BEST_FIRST.compare(hit, top.peek()) < 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    private static int tier(String name, int length, int position) {
+        if (name.length() == length) {
+            return 0;
+        } else if (position == 0) {
+            return 1;
+        } else if (name.charAt(position - 1) == ' ') {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static long[] trigrams(String s) {
+        if (s.length() < 3) {
+            return new long[0];
+        }
+        long[] result = new long[s.length() - 2];
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            result[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        return result;
+    }
+
+    // The best hits for one short key; truncated once a worse hit was dropped to respect the cap.
+    private static final class ShortHits {
+        final NavigableSet<Hit> best = new TreeSet<>(Hit.BEST_FIRST);
+        boolean truncated;
+
+        void add(Hit hit, int cap) {
+            best.add(hit);
+            if (best.size() > cap) {
+                best.pollLast();
+                truncated = true;
+            }
+        }
+    }
+
+    private record Hit(long id, int tier, int length) {
+        static final Comparator<Hit> BEST_FIRST = Comparator.comparingInt(Hit::tier)
+                .thenComparingInt(Hit::length)
+                .thenComparingLong(Hit::id);
+    }
+}
@@ -36,6 +36,14 @@ public class UserDetailsImpl implements UserDetails {
         );
     }
 
+    public static UserDetailsImpl build(Long id, String username, List<String> roleNames) {
+        List<GrantedAuthority> authorities = roleNames.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(id, username, null, null, authorities);
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
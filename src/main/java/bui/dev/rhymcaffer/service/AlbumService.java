@@ -1,22 +1,34 @@
 package bui.dev.rhymcaffer.service;
 
+import bui.dev.rhymcaffer.cache.CatalogCache;
+import bui.dev.rhymcaffer.cache.NewReleases;
 import bui.dev.rhymcaffer.dto.request.AlbumRequest;
 import bui.dev.rhymcaffer.dto.response.AlbumResponse;
 import bui.dev.rhymcaffer.dto.response.BaseResponse;
 import bui.dev.rhymcaffer.dto.response.TrackResponse;
+import bui.dev.rhymcaffer.library.LibraryCache;
 import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
 import bui.dev.rhymcaffer.model.Artist;
 import bui.dev.rhymcaffer.model.Track;
 import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.popularity.Leaderboards;
+import bui.dev.rhymcaffer.popularity.PopularityEngine;
 import bui.dev.rhymcaffer.repository.AlbumRepository;
 import bui.dev.rhymcaffer.repository.ArtistRepository;
 import bui.dev.rhymcaffer.repository.UserRepository;
 import bui.dev.rhymcaffer.repository.TrackRepository;
+import bui.dev.rhymcaffer.repository.projection.AlbumRow;
+import bui.dev.rhymcaffer.repository.projection.IdPair;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex.Catalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -25,33 +37,40 @@ import java.util.stream.Collectors;
 public class AlbumService {
 
         private final AlbumRepository albumRepository;
-        private final ArtistRepository artistRepository;
+        private final ReferenceResolver referenceResolver;
         private final UserRepository userRepository;
         private final TrackRepository trackRepository;
+        private final CatalogSearchIndex searchIndex;
+        private final CatalogCache catalogCache;
+        private final LibraryCache libraryCache;
+        private final PopularityEngine popularityEngine;
+        private final NewReleases newReleases;
+        private final Leaderboards leaderboards;
 
         @Transactional
         public BaseResponse<Void> createAlbum(AlbumRequest request) {
                 try {
+                        checkReleaseDate(request.getReleaseDate());
                         Album album = Album.builder()
                                         .name(request.getName())
                                         .imageUrl(request.getImageUrl())
                                         .description(request.getDescription())
                                         .popularity(request.getPopularity())
-                                        .releaseDate(request.getReleaseDate())
+                                        .releaseDate(request.getReleaseDate() == null ? null
+                                                        : ReleaseDatePrecision.parse(request.getReleaseDate()))
+                                        .releaseDatePrecision(request.getReleaseDate() == null ? null
+                                                        : ReleaseDatePrecision.of(request.getReleaseDate()))
                                         .albumType(request.getAlbumType())
                                         .build();
 
                         if (request.getArtistIds() != null && !request.getArtistIds().isEmpty()) {
-                                Set<Artist> artists = request.getArtistIds().stream()
-                                                .map(artistId -> artistRepository.findById(artistId)
-                                                                .orElseThrow(() -> new RuntimeException(
-                                                                                "Artist not found with id: "
-                                                                                                + artistId)))
-                                                .collect(Collectors.toSet());
-                                album.setArtists(artists);
+                                album.setArtists(referenceResolver.artists(request.getArtistIds()));
                         }
 
                         albumRepository.save(album);
+                        searchIndex.put(Catalog.ALBUM, album.getId(), album.getName());
+                        catalogCache.evictArtistAlbums(request.getArtistIds());
+                        newReleases.invalidate();
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -88,17 +107,28 @@ public class AlbumService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<AlbumResponse>> getAllAlbums() {
+        public BaseResponse<List<AlbumResponse>> getAllAlbums(Long after, int limit) {
                 try {
-                        List<Album> albums = albumRepository.findAll();
-                        List<AlbumResponse> responses = albums.stream()
-                                        .map(album -> mapToResponse(album, false, false))
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<AlbumRow> rows = albumRepository.findRowsAfter(
+                                        Pagination.start(after), Pagination.probe(pageSize));
+                        List<AlbumRow> page = Pagination.page(rows, pageSize);
+                        Map<Long, Set<Long>> artistIds = page.isEmpty() ? Map.of()
+                                        : albumRepository.findArtistIdPairs(page.stream().map(AlbumRow::id).toList())
+                                                        .stream()
+                                                        .collect(Collectors.groupingBy(IdPair::ownerId,
+                                                                        Collectors.mapping(IdPair::targetId,
+                                                                                        Collectors.toSet())));
+                        List<AlbumResponse> responses = page.stream()
+                                        .map(row -> mapToResponse(row,
+                                                        artistIds.getOrDefault(row.id(), new HashSet<>())))
                                         .toList();
                         return BaseResponse.<List<AlbumResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Success")
                                         .data(responses)
+                                        .nextCursor(Pagination.nextCursor(rows, pageSize, AlbumRow::id))
                                         .build();
                 } catch (Exception e) {
                         return BaseResponse.<List<AlbumResponse>>builder()
@@ -110,9 +140,33 @@ public class AlbumService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<AlbumResponse>> searchAlbums(String name) {
+        public BaseResponse<List<AlbumResponse>> getAlbums(List<Long> ids) {
                 try {
-                        List<Album> albums = albumRepository.findByNameContainingIgnoreCase(name);
+                        MultiGet.checkSize(ids);
+                        List<Album> albums = IdOrdering.aligned(ids, albumRepository.findAllById(ids), Album::getId);
+                        List<AlbumResponse> responses = albums.stream()
+                                        .map(album -> album == null ? null : mapToResponse(album, true, false))
+                                        .toList();
+                        return BaseResponse.<List<AlbumResponse>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message(MultiGet.message("Album", ids, albums))
+                                        .data(responses)
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<AlbumResponse>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        @Transactional(readOnly = true)
+        public BaseResponse<List<AlbumResponse>> searchAlbums(String name, int limit) {
+                try {
+                        List<Long> ids = searchIndex.search(Catalog.ALBUM, name, Pagination.clampLimit(limit));
+                        List<Album> albums = IdOrdering.inOrder(ids, albumRepository.findAllById(ids), Album::getId);
                         List<AlbumResponse> responses = albums.stream()
                                         .map(album -> mapToResponse(album, false, false))
                                         .toList();
@@ -153,18 +207,21 @@ public class AlbumService {
                 }
         }
 
-        @Transactional(readOnly = true)
-        public BaseResponse<List<AlbumResponse>> getNewReleases(String date) {
+        // No transaction here: pages inside the snapshot should not check out a connection.
+        public BaseResponse<List<AlbumResponse>> getNewReleases(String market, int offset, int limit) {
                 try {
-                        List<Album> albums = albumRepository.findByReleaseDateAfter(date);
-                        List<AlbumResponse> responses = albums.stream()
-                                        .map(album -> mapToResponse(album, false, false))
+                        int pageSize = Pagination.clampLimit(limit);
+                        int start = Math.max(offset, 0);
+                        List<NewReleases.Release> releases = newReleases.read(market, start, pageSize + 1);
+                        List<AlbumResponse> responses = Pagination.page(releases, pageSize).stream()
+                                        .map(release -> mapToResponse(release.album(), release.artistIds()))
                                         .toList();
                         return BaseResponse.<List<AlbumResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Success")
                                         .data(responses)
+                                        .nextCursor(releases.size() > pageSize ? String.valueOf(start + pageSize) : null)
                                         .build();
                 } catch (Exception e) {
                         return BaseResponse.<List<AlbumResponse>>builder()
@@ -175,16 +232,39 @@ public class AlbumService {
                 }
         }
 
+        public BaseResponse<List<Boolean>> savedAlbumsContain(Long userId, List<Long> ids) {
+                try {
+                        return BaseResponse.<List<Boolean>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Success")
+                                        .data(libraryCache.contains(userId, LibraryCache.Kind.ALBUM, ids))
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<Boolean>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
         @Transactional
         public BaseResponse<Void> saveAlbum(Long albumId, Long userId) {
                 try {
-                        Album album = albumRepository.findById(albumId)
-                                        .orElseThrow(() -> new RuntimeException("Album not found"));
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
+                        if (!albumRepository.existsById(albumId)) {
+                                throw new RuntimeException("Album not found");
+                        }
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
 
-                        album.getFollowers().add(user);
-                        albumRepository.save(album);
+                        if (albumRepository.addFollower(albumId, userId) > 0) {
+                                albumRepository.bumpVersion(albumId);
+                                catalogCache.evictEntities(Album.class, List.of(albumId));
+                                popularityEngine.albumSaved(albumId, 1);
+                        }
+                        libraryCache.added(userId, LibraryCache.Kind.ALBUM, albumId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -202,13 +282,19 @@ public class AlbumService {
         @Transactional
         public BaseResponse<Void> unsaveAlbum(Long albumId, Long userId) {
                 try {
-                        Album album = albumRepository.findById(albumId)
-                                        .orElseThrow(() -> new RuntimeException("Album not found"));
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
+                        if (!albumRepository.existsById(albumId)) {
+                                throw new RuntimeException("Album not found");
+                        }
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
 
-                        album.getFollowers().remove(user);
-                        albumRepository.save(album);
+                        if (albumRepository.removeFollower(albumId, userId) > 0) {
+                                albumRepository.bumpVersion(albumId);
+                                catalogCache.evictEntities(Album.class, List.of(albumId));
+                                popularityEngine.albumSaved(albumId, -1);
+                        }
+                        libraryCache.removed(userId, LibraryCache.Kind.ALBUM, albumId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -226,7 +312,20 @@ public class AlbumService {
         @Transactional
         public BaseResponse<Void> deleteAlbum(Long id) {
                 try {
-                        albumRepository.deleteById(id);
+                        albumRepository.findById(id).ifPresent(album -> {
+                                // Tracks are removed with the album (cascade), so drop them from search too.
+                                album.getTracks().forEach(track -> {
+                                        searchIndex.remove(Catalog.TRACK, track.getId());
+                                        leaderboards.trackRemoved(track.getId());
+                                });
+                                catalogCache.evictArtistAlbums(artistIds(album));
+                                if (!album.getTracks().isEmpty()) {
+                                        catalogCache.evictRegions(CatalogCache.ARTIST_TRACKS);
+                                }
+                                albumRepository.delete(album);
+                                newReleases.invalidate();
+                        });
+                        searchIndex.remove(Catalog.ALBUM, id);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -244,6 +343,7 @@ public class AlbumService {
         @Transactional
         public BaseResponse<Void> updateAlbum(Long id, AlbumRequest request) {
                 try {
+                        checkReleaseDate(request.getReleaseDate());
                         Album album = albumRepository.findById(id)
                                         .orElseThrow(() -> new RuntimeException("Album not found"));
 
@@ -260,26 +360,31 @@ public class AlbumService {
                                 album.setPopularity(request.getPopularity());
                         }
                         if (request.getReleaseDate() != null) {
-                                album.setReleaseDate(request.getReleaseDate());
+                                album.setReleaseDate(ReleaseDatePrecision.parse(request.getReleaseDate()));
+                                album.setReleaseDatePrecision(ReleaseDatePrecision.of(request.getReleaseDate()));
                         }
                         if (request.getAlbumType() != null) {
                                 album.setAlbumType(request.getAlbumType());
                         }
                         if (request.getArtistIds() != null) {
-                                Set<Artist> artists = request.getArtistIds().stream()
-                                                .map(artistId -> artistRepository.findById(artistId)
-                                                                .orElseThrow(() -> new RuntimeException(
-                                                                                "Artist not found with id: "
-                                                                                                + artistId)))
-                                                .collect(Collectors.toSet());
-                                album.setArtists(artists);
+                                catalogCache.evictArtistAlbums(artistIds(album));
+                                album.setArtists(referenceResolver.artists(request.getArtistIds()));
+                                catalogCache.evictArtistAlbums(request.getArtistIds());
                         }
                         albumRepository.save(album);
+                        searchIndex.put(Catalog.ALBUM, album.getId(), album.getName());
+                        newReleases.invalidate();
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Album updated successfully")
                                         .build();
+                } catch (IllegalArgumentException e) {
+                        return BaseResponse.<Void>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
                 } catch (RuntimeException e) {
                         return BaseResponse.<Void>builder()
                                         .statusCode(404)
@@ -292,13 +397,14 @@ public class AlbumService {
         @Transactional
         public BaseResponse<Void> addTrackToAlbum(Long albumId, Long trackId) {
                 try {
-                        Album album = albumRepository.findById(albumId)
-                                        .orElseThrow(() -> new RuntimeException("Album not found"));
-                        Track track = trackRepository.findById(trackId)
-                                        .orElseThrow(() -> new RuntimeException("Track not found"));
+                        if (!albumRepository.existsById(albumId)) {
+                                throw new RuntimeException("Album not found");
+                        }
+                        if (!trackRepository.existsById(trackId)) {
+                                throw new RuntimeException("Track not found");
+                        }
 
-                        album.getTracks().add(track);
-                        albumRepository.save(album);
+                        trackRepository.setAlbum(trackId, albumId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -316,13 +422,14 @@ public class AlbumService {
         @Transactional
         public BaseResponse<Void> removeTrackFromAlbum(Long albumId, Long trackId) {
                 try {
-                        Album album = albumRepository.findById(albumId)
-                                        .orElseThrow(() -> new RuntimeException("Album not found"));
-                        Track track = trackRepository.findById(trackId)
-                                        .orElseThrow(() -> new RuntimeException("Track not found"));
+                        if (!albumRepository.existsById(albumId)) {
+                                throw new RuntimeException("Album not found");
+                        }
+                        if (!trackRepository.existsById(trackId)) {
+                                throw new RuntimeException("Track not found");
+                        }
 
-                        album.getTracks().remove(track);
-                        albumRepository.save(album);
+                        trackRepository.clearAlbum(trackId, albumId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -376,6 +483,29 @@ public class AlbumService {
                 }
         }
 
+        private static Set<Long> artistIds(Album album) {
+                return album.getArtists() == null ? Set.of()
+                                : album.getArtists().stream()
+                                                .map(Artist::getId)
+                                                .collect(Collectors.toSet());
+        }
+
+        private AlbumResponse mapToResponse(AlbumRow row, Set<Long> artistIds) {
+                return AlbumResponse.builder()
+                                .id(row.id())
+                                .name(row.name())
+                                .imageUrl(row.imageUrl())
+                                .description(row.description())
+                                .popularity(row.popularity())
+                                .releaseDate(ReleaseDatePrecision.format(row.releaseDate(), row.releaseDatePrecision()))
+                                .releaseDatePrecision(row.releaseDatePrecision())
+                                .albumType(row.albumType())
+                                .artistIds(artistIds)
+                                .createdAt(row.createdAt())
+                                .updatedAt(row.updatedAt())
+                                .build();
+        }
+
         private AlbumResponse mapToResponse(Album album, boolean includeTracks, boolean includeFollowers) {
                 AlbumResponse response = AlbumResponse.builder()
                                 .id(album.getId())
@@ -383,7 +513,9 @@ public class AlbumService {
                                 .imageUrl(album.getImageUrl())
                                 .description(album.getDescription())
                                 .popularity(album.getPopularity())
-                                .releaseDate(album.getReleaseDate())
+                                .releaseDate(ReleaseDatePrecision.format(album.getReleaseDate(),
+                                                album.getReleaseDatePrecision()))
+                                .releaseDatePrecision(album.getReleaseDatePrecision())
                                 .albumType(album.getAlbumType())
                                 .artistIds(album.getArtists().stream()
                                                 .map(artist -> artist.getId())
@@ -406,4 +538,11 @@ public class AlbumService {
 
                 return response;
         }
+
+        // The controllers do not all run bean validation, so the date is checked again before parse() can throw.
+        private static void checkReleaseDate(String releaseDate) {
+                if (releaseDate != null && !ReleaseDatePrecision.isValid(releaseDate)) {
+                        throw new IllegalArgumentException("Invalid release date: " + releaseDate);
+                }
+        }
 }
\ No newline at end of file
@@ -1,14 +1,23 @@
 package bui.dev.rhymcaffer.service;
 
+import bui.dev.rhymcaffer.cache.CatalogCache;
 import bui.dev.rhymcaffer.dto.request.ArtistRequest;
 import bui.dev.rhymcaffer.dto.response.AlbumResponse;
 import bui.dev.rhymcaffer.dto.response.ArtistResponse;
 import bui.dev.rhymcaffer.dto.response.BaseResponse;
 import bui.dev.rhymcaffer.dto.response.TrackResponse;
+import bui.dev.rhymcaffer.library.LibraryCache;
 import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
 import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.popularity.Leaderboard;
+import bui.dev.rhymcaffer.popularity.Leaderboards;
+import bui.dev.rhymcaffer.popularity.PopularityEngine;
 import bui.dev.rhymcaffer.repository.ArtistRepository;
 import bui.dev.rhymcaffer.repository.UserRepository;
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex.Catalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +32,11 @@ public class ArtistService {
 
         private final ArtistRepository artistRepository;
         private final UserRepository userRepository;
+        private final CatalogSearchIndex searchIndex;
+        private final CatalogCache catalogCache;
+        private final LibraryCache libraryCache;
+        private final PopularityEngine popularityEngine;
+        private final Leaderboards leaderboards;
 
         @Transactional
         public BaseResponse<Void> createArtist(ArtistRequest request) {
@@ -36,6 +50,8 @@ public class ArtistService {
 
 
                         artistRepository.save(artist);
+                        searchIndex.put(Catalog.ARTIST, artist.getId(), artist.getName());
+                        leaderboards.artistRanked(artist.getId(), artist.getPopularity());
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -72,10 +88,12 @@ public class ArtistService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<ArtistResponse>> getAllArtists() {
+        public BaseResponse<List<ArtistResponse>> getAllArtists(Long after, int limit) {
                 try {
-                        List<Artist> artists = artistRepository.findAll();
-                        List<ArtistResponse> responses = artists.stream()
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<Artist> artists = artistRepository.findByIdGreaterThanOrderByIdAsc(
+                                        Pagination.start(after), Pagination.probe(pageSize));
+                        List<ArtistResponse> responses = Pagination.page(artists, pageSize).stream()
                                         .map(artist -> mapToResponse(artist, false, false))
                                         .toList();
                         return BaseResponse.<List<ArtistResponse>>builder()
@@ -83,6 +101,7 @@ public class ArtistService {
                                         .isSuccess(true)
                                         .message("Success")
                                         .data(responses)
+                                        .nextCursor(Pagination.nextCursor(artists, pageSize, Artist::getId))
                                         .build();
                 } catch (Exception e) {
                         return BaseResponse.<List<ArtistResponse>>builder()
@@ -94,9 +113,34 @@ public class ArtistService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<ArtistResponse>> searchArtists(String name) {
+        public BaseResponse<List<ArtistResponse>> getArtists(List<Long> ids, boolean expandAlbums, boolean expandTracks) {
+                try {
+                        MultiGet.checkSize(ids);
+                        List<Artist> artists = IdOrdering.aligned(ids, artistRepository.findAllById(ids), Artist::getId);
+                        List<ArtistResponse> responses = artists.stream()
+                                        .map(artist -> artist == null ? null
+                                                        : mapToResponse(artist, expandAlbums, expandTracks))
+                                        .toList();
+                        return BaseResponse.<List<ArtistResponse>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message(MultiGet.message("Artist", ids, artists))
+                                        .data(responses)
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<ArtistResponse>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        @Transactional(readOnly = true)
+        public BaseResponse<List<ArtistResponse>> searchArtists(String name, int limit) {
                 try {
-                        List<Artist> artists = artistRepository.findByNameContainingIgnoreCase(name);
+                        List<Long> ids = searchIndex.search(Catalog.ARTIST, name, Pagination.clampLimit(limit));
+                        List<Artist> artists = IdOrdering.inOrder(ids, artistRepository.findAllById(ids), Artist::getId);
                         List<ArtistResponse> responses = artists.stream()
                                         .map(artist -> mapToResponse(artist, false, false))
                                         .toList();
@@ -116,10 +160,22 @@ public class ArtistService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<ArtistResponse>> getPopularArtists(int minPopularity) {
+        public BaseResponse<List<ArtistResponse>> getPopularArtists(String market, String after, int limit) {
+                IdPopularity cursor;
                 try {
-                        List<Artist> artists = artistRepository.findPopularArtists(minPopularity);
-                        List<ArtistResponse> responses = artists.stream()
+                        cursor = Leaderboard.cursor(after);
+                } catch (IllegalArgumentException e) {
+                        return BaseResponse.<List<ArtistResponse>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+                try {
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<IdPopularity> ranked = leaderboards.artists(market).page(cursor, pageSize);
+                        List<Long> ids = Pagination.page(ranked, pageSize).stream().map(IdPopularity::id).toList();
+                        List<ArtistResponse> responses = catalogCache.load(Artist.class, ids).stream()
                                         .map(artist -> mapToResponse(artist, false, false))
                                         .toList();
                         return BaseResponse.<List<ArtistResponse>>builder()
@@ -127,6 +183,8 @@ public class ArtistService {
                                         .isSuccess(true)
                                         .message("Success")
                                         .data(responses)
+                                        .nextCursor(ranked.size() > pageSize
+                                                        ? Leaderboard.cursorOf(ranked.get(pageSize - 1)) : null)
                                         .build();
                 } catch (Exception e) {
                         return BaseResponse.<List<ArtistResponse>>builder()
@@ -137,16 +195,37 @@ public class ArtistService {
                 }
         }
 
+        public BaseResponse<List<Boolean>> followedArtistsContain(Long userId, List<Long> ids) {
+                try {
+                        return BaseResponse.<List<Boolean>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Success")
+                                        .data(libraryCache.contains(userId, LibraryCache.Kind.ARTIST, ids))
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<Boolean>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
         @Transactional
         public BaseResponse<Void> followArtist(Long artistId, Long userId) {
                 try {
-                        Artist artist = artistRepository.findById(artistId)
-                                        .orElseThrow(() -> new RuntimeException("Artist not found"));
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
+                        if (!artistRepository.existsById(artistId)) {
+                                throw new RuntimeException("Artist not found");
+                        }
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
 
-                        artist.getFollowers().add(user);
-                        artistRepository.save(artist);
+                        if (artistRepository.addFollower(artistId, userId) > 0) {
+                                popularityEngine.artistFollowed(artistId, 1);
+                        }
+                        libraryCache.added(userId, LibraryCache.Kind.ARTIST, artistId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -164,13 +243,17 @@ public class ArtistService {
         @Transactional
         public BaseResponse<Void> unfollowArtist(Long artistId, Long userId) {
                 try {
-                        Artist artist = artistRepository.findById(artistId)
-                                        .orElseThrow(() -> new RuntimeException("Artist not found"));
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
+                        if (!artistRepository.existsById(artistId)) {
+                                throw new RuntimeException("Artist not found");
+                        }
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
 
-                        artist.getFollowers().remove(user);
-                        artistRepository.save(artist);
+                        if (artistRepository.removeFollower(artistId, userId) > 0) {
+                                popularityEngine.artistFollowed(artistId, -1);
+                        }
+                        libraryCache.removed(userId, LibraryCache.Kind.ARTIST, artistId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -189,6 +272,9 @@ public class ArtistService {
         public BaseResponse<Void> deleteArtist(Long id) {
                 try {
                         artistRepository.deleteById(id);
+                        searchIndex.remove(Catalog.ARTIST, id);
+                        leaderboards.artistRemoved(id);
+                        catalogCache.evictRegions(CatalogCache.TRACK_ARTISTS, CatalogCache.ALBUM_ARTISTS);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -222,6 +308,8 @@ public class ArtistService {
                                 artist.setPopularity(request.getPopularity());
                         }
                         artistRepository.save(artist);
+                        searchIndex.put(Catalog.ARTIST, artist.getId(), artist.getName());
+                        leaderboards.artistRanked(artist.getId(), artist.getPopularity());
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -279,7 +367,10 @@ public class ArtistService {
                                                                         .imageUrl(album.getImageUrl())
                                                                         .description(album.getDescription())
                                                                         .popularity(album.getPopularity())
-                                                                        .releaseDate(album.getReleaseDate())
+                                                                        .releaseDate(ReleaseDatePrecision.format(
+                                                                                        album.getReleaseDate(),
+                                                                                        album.getReleaseDatePrecision()))
+                                                                        .releaseDatePrecision(album.getReleaseDatePrecision())
                                                                         .albumType(album.getAlbumType())
                                                                         .artistIds(album.getArtists().stream()
                                                                                         .map(a -> a.getId())
@@ -287,9 +378,6 @@ public class ArtistService {
                                                                         .trackIds(album.getTracks().stream()
                                                                                         .map(t -> t.getId())
                                                                                         .collect(Collectors.toSet()))
-                                                                        .followerIds(album.getFollowers().stream()
-                                                                                        .map(u -> u.getId())
-                                                                                        .collect(Collectors.toSet()))
                                                                         .createdAt(album.getCreatedAt())
                                                                         .updatedAt(album.getUpdatedAt())
                                                                         .build())
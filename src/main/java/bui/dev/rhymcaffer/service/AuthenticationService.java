@@ -1,5 +1,6 @@
 package bui.dev.rhymcaffer.service;
 
+import bui.dev.rhymcaffer.charts.Markets;
 import bui.dev.rhymcaffer.dto.request.AuthenticationRequest;
 import bui.dev.rhymcaffer.dto.request.RegisterRequest;
 import bui.dev.rhymcaffer.dto.response.AuthenticationResponse;
@@ -74,6 +75,16 @@ public class AuthenticationService {
                                                 .build();
                         }
 
+                        // The country names the user's chart market, so it must be a real one.
+                        String country = request.getCountry();
+                        if (country != null && !country.isBlank() && !Markets.isCountry(country)) {
+                                return BaseResponse.<AuthenticationResponse>builder()
+                                                .statusCode(400)
+                                                .isSuccess(false)
+                                                .message("Country must be an ISO 3166-1 alpha-2 code")
+                                                .build();
+                        }
+
                         Role userRole = roleRepository.findByName(Role.RoleName.ROLE_USER)
                                         .orElseGet(() -> roleRepository.save(Role.builder()
                                                         .name(Role.RoleName.ROLE_USER)
@@ -84,7 +95,7 @@ public class AuthenticationService {
                                         .email(request.getEmail())
                                         .password(passwordEncoder.encode(request.getPassword()))
                                         .displayName(request.getDisplayName())
-                                        .country(request.getCountry())
+                                        .country(Markets.normalize(country))
                                         .roles(new HashSet<>(Set.of(userRole)))
                                         .build();
 
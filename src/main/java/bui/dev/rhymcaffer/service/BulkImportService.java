@@ -0,0 +1,418 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.cache.CatalogCache;
+import bui.dev.rhymcaffer.cache.NewReleases;
+import bui.dev.rhymcaffer.dto.request.AlbumRequest;
+import bui.dev.rhymcaffer.dto.request.ArtistRequest;
+import bui.dev.rhymcaffer.dto.request.TrackRequest;
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.BulkImportResponse;
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
+import bui.dev.rhymcaffer.popularity.Leaderboards;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex.Catalog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON request bodies (one ArtistRequest, AlbumRequest or TrackRequest per line)
+ * into the catalog. Rows are processed in chunks: references are checked with one IN query
+ * per chunk, rows are written with JDBC batch inserts, and each chunk commits on its own.
+ * A bad row is reported with its line number and skipped; it never aborts the run, and a row
+ * the database refuses only rolls back the rows it was batched with until they are retried.
+ */
+@Service
+@Slf4j
+public class BulkImportService {
+
+        private static final int CHUNK_SIZE = 1000;
+        private static final int MAX_REPORTED_ERRORS = 1000;
+
+        private static final String INSERT_ARTIST = "INSERT INTO artists "
+                        + "(name, image_url, description, popularity, created_at, updated_at, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, 0)";
+        private static final String INSERT_ALBUM = "INSERT INTO albums "
+                        + "(name, image_url, description, popularity, release_date, release_date_precision, album_type, "
+                        + "created_at, updated_at, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        private static final String INSERT_TRACK = "INSERT INTO tracks "
+                        + "(name, image_url, duration_ms, popularity, track_url, track_number, explicit, isrc, album_id, "
+                        + "created_at, updated_at, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        private static final String INSERT_ALBUM_ARTIST = "INSERT INTO album_artists (album_id, artist_id) VALUES (?, ?)";
+        private static final String INSERT_TRACK_ARTIST = "INSERT INTO track_artists (track_id, artist_id) VALUES (?, ?)";
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+        private final ObjectMapper objectMapper;
+        private final Validator validator;
+        private final ReferenceResolver referenceResolver;
+        private final CatalogSearchIndex searchIndex;
+        private final CatalogCache catalogCache;
+        private final NewReleases newReleases;
+        private final Leaderboards leaderboards;
+
+        public BulkImportService(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        ReferenceResolver referenceResolver,
+                        CatalogSearchIndex searchIndex,
+                        CatalogCache catalogCache,
+                        NewReleases newReleases,
+                        Leaderboards leaderboards) {
+                this.jdbcTemplate = jdbcTemplate;
+                this.transactionTemplate = new TransactionTemplate(transactionManager);
+                this.objectMapper = objectMapper;
+                this.validator = validator;
+                this.referenceResolver = referenceResolver;
+                this.searchIndex = searchIndex;
+                this.catalogCache = catalogCache;
+                this.newReleases = newReleases;
+                this.leaderboards = leaderboards;
+        }
+
+        public BaseResponse<BulkImportResponse> importArtists(InputStream body) {
+                return run(body, ArtistRequest.class, (rows, report) -> rows, this::insertArtists);
+        }
+
+        public BaseResponse<BulkImportResponse> importAlbums(InputStream body) {
+                return run(body, AlbumRequest.class, this::resolveAlbumReferences, this::insertAlbums);
+        }
+
+        public BaseResponse<BulkImportResponse> importTracks(InputStream body) {
+                return run(body, TrackRequest.class, this::resolveTrackReferences, this::insertTracks);
+        }
+
+        private <T> BaseResponse<BulkImportResponse> run(InputStream body, Class<T> type,
+                        ChunkResolver<T> resolver, ChunkWriter<T> writer) {
+                Report report = new Report();
+                List<Row<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                        String line;
+                        long lineNumber = 0;
+                        while ((line = reader.readLine()) != null) {
+                                lineNumber++;
+                                if (line.isBlank()) {
+                                        continue;
+                                }
+                                report.received++;
+                                T request = parse(line, lineNumber, type, report);
+                                if (request != null) {
+                                        chunk.add(new Row<>(lineNumber, request));
+                                }
+                                if (chunk.size() == CHUNK_SIZE) {
+                                        flush(chunk, resolver, writer, report);
+                                        chunk = new ArrayList<>(CHUNK_SIZE);
+                                }
+                        }
+                        flush(chunk, resolver, writer, report);
+                } catch (IOException e) {
+                        return BaseResponse.<BulkImportResponse>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message("Failed to read request body: " + e.getMessage())
+                                        .data(report.toResponse())
+                                        .build();
+                }
+                return BaseResponse.<BulkImportResponse>builder()
+                                .statusCode(200)
+                                .isSuccess(report.failed == 0)
+                                .message("Imported " + report.imported + " of " + report.received + " rows")
+                                .data(report.toResponse())
+                                .build();
+        }
+
+        private <T> T parse(String line, long lineNumber, Class<T> type, Report report) {
+                T request;
+                try {
+                        request = objectMapper.readValue(line, type);
+                } catch (JsonProcessingException e) {
+                        report.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                        return null;
+                }
+                Set<ConstraintViolation<T>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                        report.reject(lineNumber, violations.stream()
+                                        .map(ConstraintViolation::getMessage)
+                                        .sorted()
+                                        .collect(Collectors.joining(", ")));
+                        return null;
+                }
+                return request;
+        }
+
+        private <T> void flush(List<Row<T>> chunk, ChunkResolver<T> resolver, ChunkWriter<T> writer, Report report) {
+                if (chunk.isEmpty()) {
+                        return;
+                }
+                List<Row<T>> accepted = resolver.resolve(chunk, report);
+                if (accepted.isEmpty()) {
+                        return;
+                }
+                write(accepted, writer, report);
+        }
+
+        // A failed batch is split in halves and retried until the rows the database refuses are isolated,
+        // so k bad rows cost about k * log2(CHUNK_SIZE) extra transactions and never reject their neighbours.
+        private <T> void write(List<Row<T>> rows, ChunkWriter<T> writer, Report report) {
+                try {
+                        transactionTemplate.executeWithoutResult(status -> writer.write(rows));
+                        report.imported += rows.size();
+                } catch (RuntimeException e) {
+                        if (rows.size() == 1) {
+                                String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                                log.warn("Bulk import row at line {} rejected: {}", rows.get(0).line(), cause);
+                                report.reject(rows.get(0).line(), "Rejected by the database: " + cause);
+                                return;
+                        }
+                        int middle = rows.size() / 2;
+                        write(rows.subList(0, middle), writer, report);
+                        write(rows.subList(middle, rows.size()), writer, report);
+                }
+        }
+
+        private List<Row<AlbumRequest>> resolveAlbumReferences(List<Row<AlbumRequest>> rows, Report report) {
+                Set<Long> artists = referenceResolver.existingArtistIds(collect(rows, AlbumRequest::getArtistIds));
+                return rows.stream()
+                                .filter(row -> checkArtists(row, row.request().getArtistIds(), artists, report))
+                                .toList();
+        }
+
+        private List<Row<TrackRequest>> resolveTrackReferences(List<Row<TrackRequest>> rows, Report report) {
+                Set<Long> artists = referenceResolver.existingArtistIds(collect(rows, TrackRequest::getArtistIds));
+                Set<Long> albumIds = rows.stream()
+                                .map(row -> row.request().getAlbumId())
+                                .filter(id -> id != null)
+                                .collect(Collectors.toSet());
+                Set<Long> albums = referenceResolver.existingAlbumIds(albumIds);
+                return rows.stream()
+                                .filter(row -> {
+                                        Long albumId = row.request().getAlbumId();
+                                        if (albumId != null && !albums.contains(albumId)) {
+                                                report.reject(row.line(), "Album not found with id: " + albumId);
+                                                return false;
+                                        }
+                                        return checkArtists(row, row.request().getArtistIds(), artists, report);
+                                })
+                                .toList();
+        }
+
+        private void insertArtists(List<Row<ArtistRequest>> rows) {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> ids = insertReturningIds(INSERT_ARTIST, rows, (ps, request) -> {
+                        ps.setString(1, request.getName());
+                        ps.setString(2, request.getImageUrl());
+                        ps.setString(3, request.getDescription());
+                        setInteger(ps, 4, request.getPopularity());
+                        ps.setObject(5, now);
+                        ps.setObject(6, now);
+                });
+                for (int i = 0; i < rows.size(); i++) {
+                        searchIndex.put(Catalog.ARTIST, ids.get(i), rows.get(i).request().getName());
+                        leaderboards.artistRanked(ids.get(i), rows.get(i).request().getPopularity());
+                }
+        }
+
+        private void insertAlbums(List<Row<AlbumRequest>> rows) {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> ids = insertReturningIds(INSERT_ALBUM, rows, (ps, request) -> {
+                        ps.setString(1, request.getName());
+                        ps.setString(2, request.getImageUrl());
+                        ps.setString(3, request.getDescription());
+                        setInteger(ps, 4, request.getPopularity());
+                        if (request.getReleaseDate() == null) {
+                                ps.setNull(5, Types.DATE);
+                                ps.setNull(6, Types.VARCHAR);
+                        } else {
+                                ps.setObject(5, ReleaseDatePrecision.parse(request.getReleaseDate()));
+                                ps.setString(6, ReleaseDatePrecision.of(request.getReleaseDate()).name());
+                        }
+                        ps.setString(7, request.getAlbumType());
+                        ps.setObject(8, now);
+                        ps.setObject(9, now);
+                });
+                insertLinks(INSERT_ALBUM_ARTIST, ids, rows, AlbumRequest::getArtistIds);
+                catalogCache.evictArtistAlbums(collect(rows, AlbumRequest::getArtistIds));
+                newReleases.invalidate();
+                for (int i = 0; i < rows.size(); i++) {
+                        searchIndex.put(Catalog.ALBUM, ids.get(i), rows.get(i).request().getName());
+                }
+        }
+
+        private void insertTracks(List<Row<TrackRequest>> rows) {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> ids = insertReturningIds(INSERT_TRACK, rows, (ps, request) -> {
+                        ps.setString(1, request.getName());
+                        ps.setString(2, request.getImageUrl());
+                        setInteger(ps, 3, request.getDurationMs());
+                        setInteger(ps, 4, request.getPopularity());
+                        ps.setString(5, request.getTrackUrl());
+                        ps.setString(6, request.getTrackNumber());
+                        if (request.getExplicit() == null) {
+                                ps.setNull(7, Types.BOOLEAN);
+                        } else {
+                                ps.setBoolean(7, request.getExplicit());
+                        }
+                        ps.setString(8, request.getIsrc());
+                        if (request.getAlbumId() == null) {
+                                ps.setNull(9, Types.BIGINT);
+                        } else {
+                                ps.setLong(9, request.getAlbumId());
+                        }
+                        ps.setObject(10, now);
+                        ps.setObject(11, now);
+                });
+                insertLinks(INSERT_TRACK_ARTIST, ids, rows, TrackRequest::getArtistIds);
+                // Rows were written around Hibernate, so the inverse collections they extend are stale.
+                catalogCache.evictArtistTracks(collect(rows, TrackRequest::getArtistIds));
+                catalogCache.evictAlbumTracks(rows.stream().map(row -> row.request().getAlbumId()).toList());
+                for (int i = 0; i < rows.size(); i++) {
+                        searchIndex.put(Catalog.TRACK, ids.get(i), rows.get(i).request().getName());
+                        leaderboards.trackRanked(ids.get(i), rows.get(i).request().getPopularity());
+                }
+        }
+
+        private <T> List<Long> insertReturningIds(String sql, List<Row<T>> rows, RowBinder<T> binder) {
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(
+                                con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                                new BatchPreparedStatementSetter() {
+                                        @Override
+                                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                                binder.bind(ps, rows.get(i).request());
+                                        }
+
+                                        @Override
+                                        public int getBatchSize() {
+                                                return rows.size();
+                                        }
+                                },
+                                keyHolder);
+                List<Map<String, Object>> keys = keyHolder.getKeyList();
+                if (keys.size() != rows.size()) {
+                        throw new IllegalStateException(
+                                        "Expected " + rows.size() + " generated keys but got " + keys.size());
+                }
+                return keys.stream()
+                                .map(key -> ((Number) key.values().iterator().next()).longValue())
+                                .toList();
+        }
+
+        private <T> void insertLinks(String sql, List<Long> ownerIds, List<Row<T>> rows,
+                        Function<T, Set<Long>> targetIds) {
+                List<Object[]> links = new ArrayList<>();
+                for (int i = 0; i < rows.size(); i++) {
+                        Set<Long> targets = targetIds.apply(rows.get(i).request());
+                        if (targets == null) {
+                                continue;
+                        }
+                        for (Long target : targets) {
+                                links.add(new Object[] { ownerIds.get(i), target });
+                        }
+                }
+                if (!links.isEmpty()) {
+                        jdbcTemplate.batchUpdate(sql, links);
+                }
+        }
+
+        private static <T> boolean checkArtists(Row<T> row, Set<Long> requested, Set<Long> existing, Report report) {
+                if (requested == null || existing.containsAll(requested)) {
+                        return true;
+                }
+                Set<Long> missing = new HashSet<>(requested);
+                missing.removeAll(existing);
+                report.reject(row.line(), "Artist not found with ids: " + missing);
+                return false;
+        }
+
+        private static <T> Collection<Long> collect(List<Row<T>> rows, Function<T, Set<Long>> ids) {
+                Set<Long> all = new HashSet<>();
+                rows.forEach(row -> {
+                        Set<Long> rowIds = ids.apply(row.request());
+                        if (rowIds != null) {
+                                all.addAll(rowIds);
+                        }
+                });
+                return all;
+        }
+
+        private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+                if (value == null) {
+                        ps.setNull(index, Types.INTEGER);
+                } else {
+                        ps.setInt(index, value);
+                }
+        }
+
+        private record Row<T>(long line, T request) {
+        }
+
+        @FunctionalInterface
+        private interface ChunkResolver<T> {
+                List<Row<T>> resolve(List<Row<T>> rows, Report report);
+        }
+
+        @FunctionalInterface
+        private interface ChunkWriter<T> {
+                void write(List<Row<T>> rows);
+        }
+
+        @FunctionalInterface
+        private interface RowBinder<T> {
+                void bind(PreparedStatement ps, T request) throws SQLException;
+        }
+
+        private static class Report {
+                private long received;
+                private long imported;
+                private long failed;
+                private final List<BulkImportResponse.RowError> errors = new ArrayList<>();
+
+                void reject(long line, String message) {
+                        failed++;
+                        if (errors.size() < MAX_REPORTED_ERRORS) {
+                                errors.add(new BulkImportResponse.RowError(line, message));
+                        }
+                }
+
+                BulkImportResponse toResponse() {
+                        return BulkImportResponse.builder()
+                                        .received(received)
+                                        .imported(imported)
+                                        .failed(failed)
+                                        .errors(errors)
+                                        .build();
+                }
+        }
+}
@@ -0,0 +1,105 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.cache.CatalogCache;
+import bui.dev.rhymcaffer.charts.Charts;
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.dto.response.ArtistResponse;
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.ChartResponse;
+import bui.dev.rhymcaffer.dto.response.TrackResponse;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.Chart;
+import bui.dev.rhymcaffer.model.Track;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ChartService {
+
+        private final Charts charts;
+        private final CatalogCache catalogCache;
+
+        // Without a market, the worldwide chart; without a date, the most recently published one.
+        @Transactional(readOnly = true)
+        public BaseResponse<ChartResponse> getChart(String name, String market, LocalDate date) {
+                try {
+                        Chart chart = Chart.of(name);
+                        String partition = Objects.requireNonNullElse(Markets.normalize(market), Markets.GLOBAL);
+                        Charts.Snapshot snapshot = (date == null
+                                        ? charts.latest(chart, partition)
+                                        : charts.get(chart, partition, date))
+                                        .orElseThrow(() -> new RuntimeException("Chart not found"));
+                        List<Long> trackIds = snapshot.entries().stream().map(Charts.Entry::trackId).toList();
+                        // Tracks deleted since the chart was published are left out.
+                        Map<Long, Track> tracks = catalogCache.load(Track.class, trackIds).stream()
+                                        .collect(Collectors.toMap(Track::getId, Function.identity()));
+                        List<ChartResponse.Entry> entries = snapshot.entries().stream()
+                                        .filter(entry -> tracks.containsKey(entry.trackId()))
+                                        .map(entry -> ChartResponse.Entry.builder()
+                                                        .position(entry.position())
+                                                        .plays(entry.plays())
+                                                        .saves(entry.saves())
+                                                        .track(mapToResponse(tracks.get(entry.trackId())))
+                                                        .build())
+                                        .toList();
+                        ChartResponse response = ChartResponse.builder()
+                                        .chart(chart.name().toLowerCase())
+                                        .market(snapshot.market())
+                                        .date(snapshot.date())
+                                        .windowStart(snapshot.windowStart())
+                                        .windowEnd(snapshot.windowEnd())
+                                        .entries(entries)
+                                        .build();
+                        return BaseResponse.<ChartResponse>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Success")
+                                        .data(response)
+                                        .build();
+                } catch (IllegalArgumentException e) {
+                        return BaseResponse.<ChartResponse>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<ChartResponse>builder()
+                                        .statusCode(404)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        private TrackResponse mapToResponse(Track track) {
+                return TrackResponse.builder()
+                                .id(track.getId())
+                                .name(track.getName())
+                                .imageUrl(track.getImageUrl())
+                                .durationMs(track.getDurationMs())
+                                .popularity(track.getPopularity())
+                                .trackUrl(track.getTrackUrl())
+                                .explicit(track.getExplicit())
+                                .albumId(track.getAlbum() != null ? track.getAlbum().getId() : null)
+                                .artistIds(track.getArtists().stream()
+                                                .map(Artist::getId)
+                                                .collect(Collectors.toSet()))
+                                .artists(track.getArtists().stream()
+                                                .map(artist -> ArtistResponse.builder()
+                                                                .id(artist.getId())
+                                                                .name(artist.getName())
+                                                                .imageUrl(artist.getImageUrl())
+                                                                .build())
+                                                .toList())
+                                .build();
+        }
+}
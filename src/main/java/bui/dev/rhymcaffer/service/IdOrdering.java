@@ -0,0 +1,33 @@
+package bui.dev.rhymcaffer.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// IN (...) queries return rows in arbitrary order; this puts them back in the order of the requested ids.
+public final class IdOrdering {
+
+        private IdOrdering() {
+        }
+
+        public static <T> List<T> inOrder(List<Long> ids, Collection<T> rows, Function<T, Long> idOf) {
+                Map<Long, T> byId = rows.stream()
+                                .collect(Collectors.toMap(idOf, Function.identity(), (a, b) -> a));
+                return ids.stream()
+                                .map(byId::get)
+                                .filter(Objects::nonNull)
+                                .toList();
+        }
+
+        // Like inOrder, but keeps a null in the place of every id that had no row.
+        public static <T> List<T> aligned(List<Long> ids, Collection<T> rows, Function<T, Long> idOf) {
+                Map<Long, T> byId = rows.stream()
+                                .collect(Collectors.toMap(idOf, Function.identity(), (a, b) -> a));
+                return ids.stream()
+                                .map(byId::get)
+                                .toList();
+        }
+}
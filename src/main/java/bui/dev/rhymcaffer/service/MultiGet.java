@@ -0,0 +1,30 @@
+package bui.dev.rhymcaffer.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+// Shared rules for the ?ids= endpoints: how many ids one request may ask for, and how misses are reported.
+final class MultiGet {
+
+        static final int MAX_IDS = 100;
+
+        private MultiGet() {
+        }
+
+        static void checkSize(List<Long> ids) {
+                if (ids == null || ids.isEmpty() || ids.size() > MAX_IDS) {
+                        throw new RuntimeException("Between 1 and " + MAX_IDS + " ids are required");
+                }
+        }
+
+        // rows is aligned with ids, holding null where nothing was found.
+        static String message(String type, List<Long> ids, List<?> rows) {
+                Set<Long> missing = new TreeSet<>();
+                IntStream.range(0, ids.size())
+                                .filter(i -> rows.get(i) == null && ids.get(i) != null)
+                                .forEach(i -> missing.add(ids.get(i)));
+                return missing.isEmpty() ? "Success" : type + " not found with ids: " + missing;
+        }
+}
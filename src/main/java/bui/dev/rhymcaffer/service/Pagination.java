@@ -0,0 +1,95 @@
+package bui.dev.rhymcaffer.service;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Keyset pagination helpers: pages are fetched with "id > after ORDER BY id LIMIT n + 1",
+// the extra row only tells us whether a next page exists.
+public final class Pagination {
+
+        public static final int DEFAULT_LIMIT = 50;
+        public static final int MAX_LIMIT = 200;
+
+        private Pagination() {
+        }
+
+        public static int clampLimit(int limit) {
+                if (limit <= 0) {
+                        return DEFAULT_LIMIT;
+                }
+                return Math.min(limit, MAX_LIMIT);
+        }
+
+        public static long start(Long after) {
+                return after == null ? 0L : after;
+        }
+
+        public static Limit probe(int limit) {
+                return Limit.of(limit + 1);
+        }
+
+        public static <T> List<T> page(List<T> rows, int limit) {
+                return rows.size() > limit ? rows.subList(0, limit) : rows;
+        }
+
+        public static <T> String nextCursor(List<T> rows, int limit, Function<T, Long> idOf) {
+                return rows.size() > limit ? String.valueOf(idOf.apply(rows.get(limit - 1))) : null;
+        }
+
+        // Offset pages for ordered lists that have no usable keyset, e.g. playlist entries.
+        public static Pageable window(long offset, int limit) {
+                return new Window(offset, limit);
+        }
+
+        private record Window(long offset, int limit) implements Pageable {
+
+                @Override
+                public int getPageNumber() {
+                        return (int) (offset / limit);
+                }
+
+                @Override
+                public int getPageSize() {
+                        return limit;
+                }
+
+                @Override
+                public long getOffset() {
+                        return offset;
+                }
+
+                @Override
+                public Sort getSort() {
+                        return Sort.unsorted();
+                }
+
+                @Override
+                public Pageable next() {
+                        return new Window(offset + limit, limit);
+                }
+
+                @Override
+                public Pageable previousOrFirst() {
+                        return new Window(Math.max(0, offset - limit), limit);
+                }
+
+                @Override
+                public Pageable first() {
+                        return new Window(0, limit);
+                }
+
+                @Override
+                public Pageable withPage(int pageNumber) {
+                        return new Window((long) pageNumber * limit, limit);
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                        return offset > 0;
+                }
+        }
+}
@@ -0,0 +1,48 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.dto.request.PlayRequest;
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.plays.Play;
+import bui.dev.rhymcaffer.plays.PlayIngestion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PlayService {
+
+        private final PlayIngestion playIngestion;
+
+        // Track ids are not checked here; the request thread only touches the buffer.
+        public BaseResponse<Integer> recordPlays(Long userId, List<PlayRequest> requests) {
+                LocalDateTime now = LocalDateTime.now();
+                long enqueuedAt = System.nanoTime();
+                List<Play> plays = requests.stream()
+                                .map(request -> new Play(userId, request.getTrackId(),
+                                                playedAt(request.getPlayedAt(), now), request.getMsPlayed(), enqueuedAt))
+                                .toList();
+                int accepted = playIngestion.offer(plays);
+                if (accepted < plays.size()) {
+                        return BaseResponse.<Integer>builder()
+                                        .statusCode(503)
+                                        .isSuccess(false)
+                                        .message("Play buffer is full; accepted " + accepted + " of " + plays.size()
+                                                        + " plays, resend the rest later")
+                                        .data(accepted)
+                                        .build();
+                }
+                return BaseResponse.<Integer>builder()
+                                .statusCode(202)
+                                .isSuccess(true)
+                                .message("Plays accepted")
+                                .data(accepted)
+                                .build();
+        }
+
+        private static LocalDateTime playedAt(LocalDateTime reported, LocalDateTime now) {
+                return reported == null || reported.isAfter(now) ? now : reported;
+        }
+}
@@ -1,25 +1,46 @@
 package bui.dev.rhymcaffer.service;
 
 import bui.dev.rhymcaffer.dto.request.PlaylistRequest;
+import bui.dev.rhymcaffer.dto.request.PlaylistTrackMoveRequest;
+import bui.dev.rhymcaffer.dto.request.PlaylistTracksRequest;
 import bui.dev.rhymcaffer.dto.response.BaseResponse;
 import bui.dev.rhymcaffer.dto.response.PlaylistResponse;
+import bui.dev.rhymcaffer.dto.response.PlaylistTrackResponse;
 import bui.dev.rhymcaffer.model.*;
 import bui.dev.rhymcaffer.repository.*;
+import bui.dev.rhymcaffer.repository.projection.IdCount;
+import bui.dev.rhymcaffer.repository.projection.IdSnapshot;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex.Catalog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 @Service
 @RequiredArgsConstructor
 public class PlaylistService {
 
+        private static final String INSERT_ENTRY =
+                        "INSERT INTO playlist_tracks (playlist_id, track_id, position, added_at) VALUES (?, ?, ?, ?)";
+        private static final String SET_POSITION = "UPDATE playlist_tracks SET position = ? WHERE id = ?";
+
         private final PlaylistRepository playlistRepository;
+        private final PlaylistTrackRepository playlistTrackRepository;
         private final TrackRepository trackRepository;
         private final UserRepository userRepository;
+        private final ReferenceResolver referenceResolver;
+        private final CatalogSearchIndex searchIndex;
+        private final JdbcTemplate jdbcTemplate;
 
         @Transactional
         public BaseResponse<Void> createPlaylist(PlaylistRequest request, Long ownerId) {
@@ -36,13 +57,19 @@ public class PlaylistService {
                                         .orElseThrow(() -> new RuntimeException("Owner not found"));
                         playlist.setOwner(owner);
 
+                        checkTrackCount(request.getTrackIds());
                         playlistRepository.save(playlist);
+                        if (request.getTrackIds() != null) {
+                                insertTracks(playlist.getId(), request.getTrackIds(), null);
+                        }
+                        searchIndex.put(Catalog.PLAYLIST, playlist.getId(), playlist.getName());
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Playlist created successfully")
                                         .build();
                 } catch (Exception e) {
+                        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
                         return BaseResponse.<Void>builder()
                                         .statusCode(400)
                                         .isSuccess(false)
@@ -56,7 +83,7 @@ public class PlaylistService {
                 try {
                         Playlist playlist = playlistRepository.findById(id)
                                         .orElseThrow(() -> new RuntimeException("Playlist not found"));
-                        PlaylistResponse response = mapToResponse(playlist);
+                        PlaylistResponse response = toResponses(List.of(playlist)).get(0);
                         return BaseResponse.<PlaylistResponse>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -73,17 +100,18 @@ public class PlaylistService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<PlaylistResponse>> getAllPlaylists() {
+        public BaseResponse<List<PlaylistResponse>> getAllPlaylists(Long after, int limit) {
                 try {
-                        List<Playlist> playlists = playlistRepository.findAll();
-                        List<PlaylistResponse> responses = playlists.stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<Playlist> playlists = playlistRepository.findByIdGreaterThanOrderByIdAsc(
+                                        Pagination.start(after), Pagination.probe(pageSize));
+                        List<PlaylistResponse> responses = toResponses(Pagination.page(playlists, pageSize));
                         return BaseResponse.<List<PlaylistResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Success")
                                         .data(responses)
+                                        .nextCursor(Pagination.nextCursor(playlists, pageSize, Playlist::getId))
                                         .build();
                 } catch (Exception e) {
                         return BaseResponse.<List<PlaylistResponse>>builder()
@@ -95,12 +123,11 @@ public class PlaylistService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<PlaylistResponse>> searchPlaylists(String name) {
+        public BaseResponse<List<PlaylistResponse>> searchPlaylists(String name, int limit) {
                 try {
-                        List<Playlist> playlists = playlistRepository.findByNameContainingIgnoreCase(name);
-                        List<PlaylistResponse> responses = playlists.stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
+                        List<Long> ids = searchIndex.search(Catalog.PLAYLIST, name, Pagination.clampLimit(limit));
+                        List<Playlist> playlists = IdOrdering.inOrder(ids, playlistRepository.findAllById(ids), Playlist::getId);
+                        List<PlaylistResponse> responses = toResponses(playlists);
                         return BaseResponse.<List<PlaylistResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -120,9 +147,7 @@ public class PlaylistService {
         public BaseResponse<List<PlaylistResponse>> getPlaylistsByOwner(Long ownerId) {
                 try {
                         List<Playlist> playlists = playlistRepository.findByOwner_Id(ownerId);
-                        List<PlaylistResponse> responses = playlists.stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
+                        List<PlaylistResponse> responses = toResponses(playlists);
                         return BaseResponse.<List<PlaylistResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -142,9 +167,7 @@ public class PlaylistService {
         public BaseResponse<List<PlaylistResponse>> getFollowedPlaylists(Long userId) {
                 try {
                         List<Playlist> playlists = playlistRepository.findByFollowers_Id(userId);
-                        List<PlaylistResponse> responses = playlists.stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
+                        List<PlaylistResponse> responses = toResponses(playlists);
                         return BaseResponse.<List<PlaylistResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -164,9 +187,7 @@ public class PlaylistService {
         public BaseResponse<List<PlaylistResponse>> getPublicPlaylists() {
                 try {
                         List<Playlist> playlists = playlistRepository.findByIsPublicTrue();
-                        List<PlaylistResponse> responses = playlists.stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
+                        List<PlaylistResponse> responses = toResponses(playlists);
                         return BaseResponse.<List<PlaylistResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -185,21 +206,27 @@ public class PlaylistService {
 
 
         @Transactional
-        public BaseResponse<Void> addTrackToPlaylist(Long playlistId, Long trackId) {
+        public BaseResponse<Void> addTrackToPlaylist(Long playlistId, Long trackId, Integer index) {
                 try {
-                        Playlist playlist = playlistRepository.findById(playlistId)
-                                        .orElseThrow(() -> new RuntimeException("Playlist not found"));
-                        Track track = trackRepository.findById(trackId)
-                                        .orElseThrow(() -> new RuntimeException("Track not found"));
+                        if (!trackRepository.existsById(trackId)) {
+                                throw new RuntimeException("Track not found");
+                        }
+                        if (playlistRepository.bumpSnapshot(playlistId) == 0) {
+                                throw new RuntimeException("Playlist not found");
+                        }
 
-                        playlist.getTracks().add(track);
-                        playlistRepository.save(playlist);
+                        playlistTrackRepository.save(PlaylistTrack.builder()
+                                        .playlist(playlistRepository.getReferenceById(playlistId))
+                                        .track(trackRepository.getReferenceById(trackId))
+                                        .position(positionsAt(playlistId, 0L, index, 1)[0])
+                                        .build());
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Track added to playlist successfully")
                                         .build();
                 } catch (RuntimeException e) {
+                        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
                         return BaseResponse.<Void>builder()
                                         .statusCode(404)
                                         .isSuccess(false)
@@ -211,19 +238,46 @@ public class PlaylistService {
         @Transactional
         public BaseResponse<Void> removeTrackFromPlaylist(Long playlistId, Long trackId) {
                 try {
-                        Playlist playlist = playlistRepository.findById(playlistId)
-                                        .orElseThrow(() -> new RuntimeException("Playlist not found"));
-                        Track track = trackRepository.findById(trackId)
-                                        .orElseThrow(() -> new RuntimeException("Track not found"));
+                        if (!playlistRepository.existsById(playlistId)) {
+                                throw new RuntimeException("Playlist not found");
+                        }
+                        if (!trackRepository.existsById(trackId)) {
+                                throw new RuntimeException("Track not found");
+                        }
 
-                        playlist.getTracks().remove(track);
-                        playlistRepository.save(playlist);
+                        if (playlistTrackRepository.deleteTrack(playlistId, trackId) > 0) {
+                                playlistRepository.bumpSnapshot(playlistId);
+                        }
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Track removed from playlist successfully")
                                         .build();
                 } catch (RuntimeException e) {
+                        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                        return BaseResponse.<Void>builder()
+                                        .statusCode(404)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        @Transactional
+        public BaseResponse<Void> addTracksToPlaylist(Long playlistId, PlaylistTracksRequest request) {
+                try {
+                        if (playlistRepository.bumpSnapshot(playlistId) == 0) {
+                                throw new RuntimeException("Playlist not found");
+                        }
+
+                        insertTracks(playlistId, request.getTrackIds(), request.getIndex());
+                        return BaseResponse.<Void>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message(request.getTrackIds().size() + " tracks added to playlist successfully")
+                                        .build();
+                } catch (RuntimeException e) {
+                        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
                         return BaseResponse.<Void>builder()
                                         .statusCode(404)
                                         .isSuccess(false)
@@ -232,16 +286,106 @@ public class PlaylistService {
                 }
         }
 
+        @Transactional
+        public BaseResponse<Void> removeTracksFromPlaylist(Long playlistId, PlaylistTracksRequest request) {
+                try {
+                        if (!playlistRepository.existsById(playlistId)) {
+                                throw new RuntimeException("Playlist not found");
+                        }
+
+                        int removed = playlistTrackRepository.deleteTracks(playlistId, request.getTrackIds());
+                        if (removed > 0) {
+                                playlistRepository.bumpSnapshot(playlistId);
+                        }
+                        return BaseResponse.<Void>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message(removed + " tracks removed from playlist successfully")
+                                        .build();
+                } catch (RuntimeException e) {
+                        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                        return BaseResponse.<Void>builder()
+                                        .statusCode(404)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        @Transactional
+        public BaseResponse<Void> moveTrack(Long playlistId, PlaylistTrackMoveRequest request) {
+                try {
+                        if (!playlistTrackRepository.existsByIdAndPlaylist_Id(request.getEntryId(), playlistId)) {
+                                throw new RuntimeException("Playlist entry not found");
+                        }
+                        // Written directly rather than through a loaded entry: positionsAt may renumber or
+                        // shift the playlist in bulk, which a managed copy would not see.
+                        long position = positionsAt(playlistId, request.getEntryId(), request.getToIndex(), 1)[0];
+                        playlistTrackRepository.setPosition(request.getEntryId(), position);
+                        playlistRepository.bumpSnapshot(playlistId);
+                        return BaseResponse.<Void>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Track moved successfully")
+                                        .build();
+                } catch (RuntimeException e) {
+                        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                        return BaseResponse.<Void>builder()
+                                        .statusCode(404)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        @Transactional(readOnly = true)
+        public BaseResponse<List<PlaylistTrackResponse>> getPlaylistTracks(Long playlistId, int offset, int limit) {
+                try {
+                        if (!playlistRepository.existsById(playlistId)) {
+                                throw new RuntimeException("Playlist not found");
+                        }
+                        int pageSize = Pagination.clampLimit(limit);
+                        int start = Math.max(offset, 0);
+                        List<PlaylistTrackResponse> entries = playlistTrackRepository.findPage(
+                                        playlistId, Pagination.window(start, pageSize + 1));
+                        return BaseResponse.<List<PlaylistTrackResponse>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Success")
+                                        .data(Pagination.page(entries, pageSize))
+                                        .nextCursor(entries.size() > pageSize ? String.valueOf(start + pageSize) : null)
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<PlaylistTrackResponse>>builder()
+                                        .statusCode(404)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        // A digest of (id, snapshot id) over the followed playlists, so the tag changes when one
+        // is followed, unfollowed or modified.
+        @Transactional(readOnly = true)
+        public String getFollowedSnapshotTag(Long userId) {
+                long digest = 1;
+                for (IdSnapshot row : playlistRepository.findFollowedSnapshots(userId)) {
+                        digest = 31 * (31 * digest + row.id()) + row.snapshotId();
+                }
+                return Long.toHexString(digest);
+        }
+
         @Transactional
         public BaseResponse<Void> followPlaylist(Long playlistId, Long userId) {
                 try {
-                        Playlist playlist = playlistRepository.findById(playlistId)
-                                        .orElseThrow(() -> new RuntimeException("Playlist not found"));
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
+                        if (!playlistRepository.existsById(playlistId)) {
+                                throw new RuntimeException("Playlist not found");
+                        }
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
 
-                        playlist.getFollowers().add(user);
-                        playlistRepository.save(playlist);
+                        playlistRepository.addFollower(playlistId, userId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -259,13 +403,14 @@ public class PlaylistService {
         @Transactional
         public BaseResponse<Void> unfollowPlaylist(Long playlistId, Long userId) {
                 try {
-                        Playlist playlist = playlistRepository.findById(playlistId)
-                                        .orElseThrow(() -> new RuntimeException("Playlist not found"));
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
+                        if (!playlistRepository.existsById(playlistId)) {
+                                throw new RuntimeException("Playlist not found");
+                        }
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
 
-                        playlist.getFollowers().remove(user);
-                        playlistRepository.save(playlist);
+                        playlistRepository.removeFollower(playlistId, userId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -283,7 +428,9 @@ public class PlaylistService {
         @Transactional
         public BaseResponse<Void> deletePlaylist(Long id) {
                 try {
+                        playlistTrackRepository.deleteAllInPlaylist(id);
                         playlistRepository.deleteById(id);
+                        searchIndex.remove(Catalog.PLAYLIST, id);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -301,6 +448,7 @@ public class PlaylistService {
         @Transactional
         public BaseResponse<Void> updatePlaylist(Long id, PlaylistRequest request, Long ownerId) {
                 try {
+                        checkTrackCount(request.getTrackIds());
                         Playlist playlist = playlistRepository.findById(id)
                                         .orElseThrow(() -> new RuntimeException("Playlist not found"));
 
@@ -322,14 +470,29 @@ public class PlaylistService {
                         User owner = userRepository.findById(ownerId)
                                         .orElseThrow(() -> new RuntimeException("Owner not found"));
                         playlist.setOwner(owner);
+                        playlist.setSnapshotId(playlist.getSnapshotId() + 1);
+                        if (request.getTrackIds() != null) {
+                                playlistTrackRepository.deleteAllInPlaylist(playlist.getId());
+                                insertTracks(playlist.getId(), request.getTrackIds(), null);
+                        }
 
                         playlistRepository.save(playlist);
+                        searchIndex.put(Catalog.PLAYLIST, playlist.getId(), playlist.getName());
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Playlist updated successfully")
                                         .build();
+                } catch (IllegalArgumentException e) {
+                        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                        return BaseResponse.<Void>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
                 } catch (RuntimeException e) {
+                        // The old entries may already be deleted, so nothing of a failed update may commit.
+                        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
                         return BaseResponse.<Void>builder()
                                         .statusCode(404)
                                         .isSuccess(false)
@@ -338,7 +501,80 @@ public class PlaylistService {
                 }
         }
 
-        private PlaylistResponse mapToResponse(Playlist playlist) {
+        // The playlist controller does not run bean validation, so the @Size cap is checked here too.
+        private static void checkTrackCount(List<Long> trackIds) {
+                if (trackIds != null && trackIds.size() > PlaylistTracksRequest.MAX_TRACKS) {
+                        throw new IllegalArgumentException(
+                                        "At most " + PlaylistTracksRequest.MAX_TRACKS + " tracks per request");
+                }
+        }
+
+        // Validates every id with one IN query and writes the entries as a single JDBC batch.
+        private void insertTracks(Long playlistId, List<Long> trackIds, Integer index) {
+                referenceResolver.requireTracks(trackIds);
+                long[] positions = positionsAt(playlistId, 0L, index, trackIds.size());
+                Timestamp addedAt = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.batchUpdate(INSERT_ENTRY, IntStream.range(0, trackIds.size())
+                                .mapToObj(i -> new Object[] { playlistId, trackIds.get(i), positions[i], addedAt })
+                                .toList());
+        }
+
+        /**
+         * Positions for count consecutive entries placed at index (appended when index is null or
+         * past the end), spread evenly between the neighbours. excludedId leaves the entry being
+         * moved out of the count. When the gap is too small the entries after it are shifted down
+         * in one update; only neighbours sharing a position force a full renumber.
+         */
+        private long[] positionsAt(Long playlistId, Long excludedId, Integer index, int count) {
+                if (index != null) {
+                        List<Long> neighbours = playlistTrackRepository.findPositions(playlistId, excludedId,
+                                        Pagination.window(Math.max(index - 1, 0), index == 0 ? 1 : 2));
+                        int nextSlot = index == 0 ? 0 : 1;
+                        if (neighbours.size() > nextSlot) {
+                                long before = index == 0 ? 0L : neighbours.get(0);
+                                long after = neighbours.get(nextSlot);
+                                if (after <= before) {
+                                        renumber(playlistId);
+                                        return positionsAt(playlistId, excludedId, index, count);
+                                }
+                                if (after - before <= count) {
+                                        long shift = count * PlaylistTrack.POSITION_GAP;
+                                        playlistTrackRepository.shiftFrom(playlistId, after, shift);
+                                        after += shift;
+                                }
+                                long step = (after - before) / (count + 1);
+                                return LongStream.rangeClosed(1, count).map(i -> before + i * step).toArray();
+                        }
+                }
+                long last = playlistTrackRepository.findMaxPosition(playlistId).orElse(0L);
+                return LongStream.rangeClosed(1, count).map(i -> last + i * PlaylistTrack.POSITION_GAP).toArray();
+        }
+
+        // One JDBC batch, like insertTracks; callers only read positions back through queries.
+        private void renumber(Long playlistId) {
+                List<Long> ids = playlistTrackRepository.findIdsInOrder(playlistId);
+                jdbcTemplate.batchUpdate(SET_POSITION, IntStream.range(0, ids.size())
+                                .mapToObj(i -> new Object[] { (i + 1) * PlaylistTrack.POSITION_GAP, ids.get(i) })
+                                .toList());
+        }
+
+        private List<PlaylistResponse> toResponses(List<Playlist> playlists) {
+                if (playlists.isEmpty()) {
+                        return List.of();
+                }
+                List<Long> ids = playlists.stream().map(Playlist::getId).toList();
+                Map<Long, Long> trackCounts = playlistTrackRepository.countByPlaylistIds(ids).stream()
+                                .collect(Collectors.toMap(IdCount::id, IdCount::count));
+                Map<Long, Long> followerCounts = playlistRepository.countFollowers(ids).stream()
+                                .collect(Collectors.toMap(IdCount::id, IdCount::count));
+                return playlists.stream()
+                                .map(playlist -> mapToResponse(playlist,
+                                                trackCounts.getOrDefault(playlist.getId(), 0L),
+                                                followerCounts.getOrDefault(playlist.getId(), 0L)))
+                                .toList();
+        }
+
+        private PlaylistResponse mapToResponse(Playlist playlist, long trackCount, long followerCount) {
                 return PlaylistResponse.builder()
                                 .id(playlist.getId())
                                 .name(playlist.getName())
@@ -347,12 +583,9 @@ public class PlaylistService {
                                 .isPublic(playlist.getIsPublic())
                                 .collaborative(playlist.getCollaborative())
                                 .ownerId(playlist.getOwner().getId())
-                                .trackIds(playlist.getTracks().stream()
-                                                .map(track -> track.getId())
-                                                .collect(Collectors.toSet()))
-                                .followerIds(playlist.getFollowers().stream()
-                                                .map(user -> user.getId())
-                                                .collect(Collectors.toSet()))
+                                .trackCount(trackCount)
+                                .followerCount(followerCount)
+                                .snapshotId(playlist.getSnapshotId())
                                 .createdAt(playlist.getCreatedAt())
                                 .updatedAt(playlist.getUpdatedAt())
                                 .build();
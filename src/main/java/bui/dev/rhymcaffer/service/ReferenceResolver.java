@@ -0,0 +1,72 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.repository.AlbumRepository;
+import bui.dev.rhymcaffer.repository.ArtistRepository;
+import bui.dev.rhymcaffer.repository.TrackRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Turns the id lists of write requests into entities with one IN query per type,
+// failing with every missing id at once rather than one round trip per id.
+@Component
+@RequiredArgsConstructor
+public class ReferenceResolver {
+
+        private final ArtistRepository artistRepository;
+        private final AlbumRepository albumRepository;
+        private final TrackRepository trackRepository;
+
+        public Set<Artist> artists(Collection<Long> ids) {
+                return resolve("Artist", ids, artistRepository::findAllById, Artist::getId);
+        }
+
+        public Album album(Long id) {
+                return albumRepository.findById(id)
+                                .orElseThrow(() -> new RuntimeException("Album not found with id: " + id));
+        }
+
+        // Existence-only variants for writers that link rows by id without loading entities.
+        public Set<Long> existingArtistIds(Collection<Long> ids) {
+                return ids.isEmpty() ? Set.of() : artistRepository.findExistingIds(ids);
+        }
+
+        public Set<Long> existingAlbumIds(Collection<Long> ids) {
+                return ids.isEmpty() ? Set.of() : albumRepository.findExistingIds(ids);
+        }
+
+        public void requireTracks(Collection<Long> ids) {
+                Set<Long> wanted = new HashSet<>(ids);
+                wanted.remove(null);
+                Set<Long> missing = new TreeSet<>(wanted);
+                missing.removeAll(trackRepository.findExistingIds(wanted));
+                if (!missing.isEmpty()) {
+                        throw new RuntimeException("Track not found with ids: " + missing);
+                }
+        }
+
+        private static <T> Set<T> resolve(String type, Collection<Long> ids,
+                        Function<Set<Long>, List<T>> loader, Function<T, Long> idOf) {
+                if (ids == null || ids.isEmpty()) {
+                        return new HashSet<>();
+                }
+                Set<Long> wanted = new HashSet<>(ids);
+                wanted.remove(null);
+                Set<T> found = new HashSet<>(loader.apply(wanted));
+                if (found.size() != wanted.size()) {
+                        Set<Long> missing = new TreeSet<>(wanted);
+                        missing.removeAll(found.stream().map(idOf).collect(Collectors.toSet()));
+                        throw new RuntimeException(type + " not found with ids: " + missing);
+                }
+                return found;
+        }
+}
@@ -1,16 +1,25 @@
 package bui.dev.rhymcaffer.service;
 
+import bui.dev.rhymcaffer.cache.CatalogCache;
 import bui.dev.rhymcaffer.dto.request.TrackRequest;
 import bui.dev.rhymcaffer.dto.response.ArtistResponse;
 import bui.dev.rhymcaffer.dto.response.BaseResponse;
 import bui.dev.rhymcaffer.dto.response.TrackResponse;
 import bui.dev.rhymcaffer.dto.response.TrackListResponse;
+import bui.dev.rhymcaffer.library.LibraryCache;
 import bui.dev.rhymcaffer.model.*;
+import bui.dev.rhymcaffer.popularity.Leaderboard;
+import bui.dev.rhymcaffer.popularity.Leaderboards;
+import bui.dev.rhymcaffer.popularity.PopularityEngine;
 import bui.dev.rhymcaffer.repository.*;
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex.Catalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -20,9 +29,13 @@ import java.util.stream.Collectors;
 public class TrackService {
 
         private final TrackRepository trackRepository;
-        private final AlbumRepository albumRepository;
-        private final ArtistRepository artistRepository;
+        private final ReferenceResolver referenceResolver;
         private final UserRepository userRepository;
+        private final CatalogSearchIndex searchIndex;
+        private final CatalogCache catalogCache;
+        private final LibraryCache libraryCache;
+        private final PopularityEngine popularityEngine;
+        private final Leaderboards leaderboards;
 
         @Transactional
         public BaseResponse<Void> createTrack(TrackRequest request) {
@@ -39,22 +52,18 @@ public class TrackService {
                                         .build();
 
                         if (request.getAlbumId() != null) {
-                                Album album = albumRepository.findById(request.getAlbumId())
-                                                .orElseThrow(() -> new RuntimeException("Album not found"));
-                                track.setAlbum(album);
+                                track.setAlbum(referenceResolver.album(request.getAlbumId()));
                         }
 
                         if (request.getArtistIds() != null && !request.getArtistIds().isEmpty()) {
-                                Set<Artist> artists = request.getArtistIds().stream()
-                                                .map(artistId -> artistRepository.findById(artistId)
-                                                                .orElseThrow(() -> new RuntimeException(
-                                                                                "Artist not found with id: "
-                                                                                                + artistId)))
-                                                .collect(Collectors.toSet());
-                                track.setArtists(artists);
+                                track.setArtists(referenceResolver.artists(request.getArtistIds()));
                         }
 
                         trackRepository.save(track);
+                        searchIndex.put(Catalog.TRACK, track.getId(), track.getName());
+                        leaderboards.trackRanked(track.getId(), track.getPopularity());
+                        catalogCache.evictAlbumTracks(request.getAlbumId());
+                        catalogCache.evictArtistTracks(request.getArtistIds());
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -72,7 +81,7 @@ public class TrackService {
         @Transactional(readOnly = true)
         public BaseResponse<TrackResponse> getTrack(Long id) {
                 try {
-                        Track track = trackRepository.findByIdWithArtists(id);
+                        Track track = trackRepository.findById(id).orElse(null);
                         System.out.println("track: " + track);
                         if (track == null) {
                                 return BaseResponse.<TrackResponse>builder()
@@ -101,17 +110,17 @@ public class TrackService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<TrackListResponse>> getAllTracks() {
+        public BaseResponse<List<TrackListResponse>> getAllTracks(Long after, int limit) {
                 try {
-                        List<Track> tracks = trackRepository.findAll();
-                        List<TrackListResponse> responses = tracks.stream()
-                                        .map(this::mapToListResponse)
-                                        .toList();
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<TrackListResponse> rows = trackRepository.findListRowsAfter(
+                                        Pagination.start(after), Pagination.probe(pageSize));
                         return BaseResponse.<List<TrackListResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Success")
-                                        .data(responses)
+                                        .data(Pagination.page(rows, pageSize))
+                                        .nextCursor(Pagination.nextCursor(rows, pageSize, TrackListResponse::getId))
                                         .build();
                 } catch (Exception e) {
                         return BaseResponse.<List<TrackListResponse>>builder()
@@ -123,9 +132,35 @@ public class TrackService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<TrackResponse>> searchTracks(String name) {
+        public BaseResponse<List<TrackResponse>> getTracks(List<Long> ids) {
                 try {
-                        List<Track> tracks = trackRepository.findByNameContainingIgnoreCase(name);
+                        MultiGet.checkSize(ids);
+                        List<Track> tracks = IdOrdering.aligned(ids,
+                                        trackRepository.findAllWithArtistsByIdIn(ids), Track::getId);
+                        List<TrackResponse> responses = tracks.stream()
+                                        .map(track -> track == null ? null : mapToResponse(track))
+                                        .toList();
+                        return BaseResponse.<List<TrackResponse>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message(MultiGet.message("Track", ids, tracks))
+                                        .data(responses)
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<TrackResponse>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        @Transactional(readOnly = true)
+        public BaseResponse<List<TrackResponse>> searchTracks(String name, int limit) {
+                try {
+                        List<Long> ids = searchIndex.search(Catalog.TRACK, name, Pagination.clampLimit(limit));
+                        List<Track> tracks = IdOrdering.inOrder(ids,
+                                        trackRepository.findAllWithArtistsByIdIn(ids), Track::getId);
                         List<TrackResponse> responses = tracks.stream()
                                         .map(this::mapToResponse)
                                         .toList();
@@ -211,10 +246,22 @@ public class TrackService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<TrackResponse>> getPopularTracks(int minPopularity) {
+        public BaseResponse<List<TrackResponse>> getPopularTracks(String market, String after, int limit) {
+                IdPopularity cursor;
                 try {
-                        List<Track> tracks = trackRepository.findByPopularityGreaterThanEqual(minPopularity);
-                        List<TrackResponse> responses = tracks.stream()
+                        cursor = Leaderboard.cursor(after);
+                } catch (IllegalArgumentException e) {
+                        return BaseResponse.<List<TrackResponse>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+                try {
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<IdPopularity> ranked = leaderboards.tracks(market).page(cursor, pageSize);
+                        List<Long> ids = Pagination.page(ranked, pageSize).stream().map(IdPopularity::id).toList();
+                        List<TrackResponse> responses = catalogCache.load(Track.class, ids).stream()
                                         .map(this::mapToResponse)
                                         .toList();
                         return BaseResponse.<List<TrackResponse>>builder()
@@ -222,6 +269,8 @@ public class TrackService {
                                         .isSuccess(true)
                                         .message("Success")
                                         .data(responses)
+                                        .nextCursor(ranked.size() > pageSize
+                                                        ? Leaderboard.cursorOf(ranked.get(pageSize - 1)) : null)
                                         .build();
                 } catch (Exception e) {
                         return BaseResponse.<List<TrackResponse>>builder()
@@ -232,16 +281,38 @@ public class TrackService {
                 }
         }
 
+        public BaseResponse<List<Boolean>> savedTracksContain(Long userId, List<Long> ids) {
+                try {
+                        return BaseResponse.<List<Boolean>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Success")
+                                        .data(libraryCache.contains(userId, LibraryCache.Kind.TRACK, ids))
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<Boolean>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
         @Transactional
         public BaseResponse<Void> saveTrack(Long trackId, Long userId) {
                 try {
-                        Track track = trackRepository.findById(trackId)
-                                        .orElseThrow(() -> new RuntimeException("Track not found"));
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
+                        if (!trackRepository.existsById(trackId)) {
+                                throw new RuntimeException("Track not found");
+                        }
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
 
-                        track.getSavedByUsers().add(user);
-                        trackRepository.save(track);
+                        if (trackRepository.addSavedByUser(trackId, userId) > 0) {
+                                trackRepository.addSaveEvent(trackId, userId, LocalDateTime.now());
+                                popularityEngine.trackSaved(trackId, 1);
+                        }
+                        libraryCache.added(userId, LibraryCache.Kind.TRACK, trackId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -259,13 +330,18 @@ public class TrackService {
         @Transactional
         public BaseResponse<Void> unsaveTrack(Long trackId, Long userId) {
                 try {
-                        Track track = trackRepository.findById(trackId)
-                                        .orElseThrow(() -> new RuntimeException("Track not found"));
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
+                        if (!trackRepository.existsById(trackId)) {
+                                throw new RuntimeException("Track not found");
+                        }
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
 
-                        track.getSavedByUsers().remove(user);
-                        trackRepository.save(track);
+                        if (trackRepository.removeSavedByUser(trackId, userId) > 0) {
+                                trackRepository.removeSaveEvents(trackId, userId);
+                                popularityEngine.trackSaved(trackId, -1);
+                        }
+                        libraryCache.removed(userId, LibraryCache.Kind.TRACK, trackId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -283,7 +359,13 @@ public class TrackService {
         @Transactional
         public BaseResponse<Void> deleteTrack(Long id) {
                 try {
-                        trackRepository.deleteById(id);
+                        trackRepository.findById(id).ifPresent(track -> {
+                                catalogCache.evictAlbumTracks(albumId(track));
+                                catalogCache.evictArtistTracks(artistIds(track));
+                                trackRepository.delete(track);
+                        });
+                        searchIndex.remove(Catalog.TRACK, id);
+                        leaderboards.trackRemoved(id);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -329,20 +411,18 @@ public class TrackService {
                                 track.setIsrc(request.getIsrc());
                         }
                         if (request.getAlbumId() != null) {
-                                Album album = albumRepository.findById(request.getAlbumId())
-                                                .orElseThrow(() -> new RuntimeException("Album not found"));
-                                track.setAlbum(album);
+                                catalogCache.evictAlbumTracks(albumId(track));
+                                track.setAlbum(referenceResolver.album(request.getAlbumId()));
+                                catalogCache.evictAlbumTracks(request.getAlbumId());
                         }
                         if (request.getArtistIds() != null) {
-                                Set<Artist> artists = request.getArtistIds().stream()
-                                                .map(artistId -> artistRepository.findById(artistId)
-                                                                .orElseThrow(() -> new RuntimeException(
-                                                                                "Artist not found with id: "
-                                                                                                + artistId)))
-                                                .collect(Collectors.toSet());
-                                track.setArtists(artists);
+                                catalogCache.evictArtistTracks(artistIds(track));
+                                track.setArtists(referenceResolver.artists(request.getArtistIds()));
+                                catalogCache.evictArtistTracks(request.getArtistIds());
                         }
                         trackRepository.save(track);
+                        searchIndex.put(Catalog.TRACK, track.getId(), track.getName());
+                        leaderboards.trackRanked(track.getId(), track.getPopularity());
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -357,21 +437,15 @@ public class TrackService {
                 }
         }
 
-        private TrackListResponse mapToListResponse(Track track) {
-                return TrackListResponse.builder()
-                                .id(track.getId())
-                                .name(track.getName())
-                                .imageUrl(track.getImageUrl())
-                                .durationMs(track.getDurationMs())
-                                .popularity(track.getPopularity())
-                                .trackUrl(track.getTrackUrl())
-                                .trackNumber(track.getTrackNumber())
-                                .explicit(track.getExplicit())
-                                .isrc(track.getIsrc())
-                                .albumId(track.getAlbum() != null ? track.getAlbum().getId() : null)
-                                .createdAt(track.getCreatedAt())
-                                .updatedAt(track.getUpdatedAt())
-                                .build();
+        private static Long albumId(Track track) {
+                return track.getAlbum() != null ? track.getAlbum().getId() : null;
+        }
+
+        private static Set<Long> artistIds(Track track) {
+                return track.getArtists() == null ? Set.of()
+                                : track.getArtists().stream()
+                                                .map(Artist::getId)
+                                                .collect(Collectors.toSet());
         }
 
         private TrackResponse mapToResponse(Track track) {
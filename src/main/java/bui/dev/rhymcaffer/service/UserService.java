@@ -3,23 +3,33 @@ package bui.dev.rhymcaffer.service;
 import bui.dev.rhymcaffer.dto.request.UserRequest;
 import bui.dev.rhymcaffer.dto.request.UserUpdateRequest;
 import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.UserCardResponse;
 import bui.dev.rhymcaffer.dto.response.UserResponse;
+import bui.dev.rhymcaffer.library.LibraryCache;
 import bui.dev.rhymcaffer.model.User;
 import bui.dev.rhymcaffer.repository.UserRepository;
+import bui.dev.rhymcaffer.repository.projection.UserCountsView;
+import bui.dev.rhymcaffer.social.FollowGraphIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+        private static final int MAX_SUGGESTIONS = 50;
+
         private final UserRepository userRepository;
         private final PasswordEncoder passwordEncoder;
+        private final LibraryCache libraryCache;
+        private final FollowGraphIndex followGraph;
 
         @Transactional
         public BaseResponse<Void> createUser(UserRequest request) {
@@ -68,7 +78,7 @@ public class UserService {
                 try {
                         User user = userRepository.findById(id)
                                         .orElseThrow(() -> new RuntimeException("User not found"));
-                        UserResponse response = mapToResponse(user);
+                        UserResponse response = toResponses(List.of(user)).get(0);
                         return BaseResponse.<UserResponse>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -89,7 +99,7 @@ public class UserService {
                 try {
                         User user = userRepository.findByUsername(username)
                                         .orElseThrow(() -> new RuntimeException("User not found"));
-                        UserResponse response = mapToResponse(user);
+                        UserResponse response = toResponses(List.of(user)).get(0);
                         return BaseResponse.<UserResponse>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -106,17 +116,18 @@ public class UserService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<UserResponse>> getAllUsers() {
+        public BaseResponse<List<UserResponse>> getAllUsers(Long after, int limit) {
                 try {
-                        List<User> users = userRepository.findAll();
-                        List<UserResponse> responses = users.stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                                        Pagination.start(after), Pagination.probe(pageSize));
+                        List<UserResponse> responses = toResponses(Pagination.page(users, pageSize));
                         return BaseResponse.<List<UserResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Success")
                                         .data(responses)
+                                        .nextCursor(Pagination.nextCursor(users, pageSize, User::getId))
                                         .build();
                 } catch (Exception e) {
                         return BaseResponse.<List<UserResponse>>builder()
@@ -133,9 +144,7 @@ public class UserService {
                         List<User> users = userRepository
                                         .findByUsernameContainingIgnoreCaseOrDisplayNameContainingIgnoreCase(
                                                         query, query);
-                        List<UserResponse> responses = users.stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
+                        List<UserResponse> responses = toResponses(users);
                         return BaseResponse.<List<UserResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -210,21 +219,21 @@ public class UserService {
         @Transactional
         public BaseResponse<Void> followUser(Long userId, Long followerId) {
                 try {
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
-                        User follower = userRepository.findById(followerId)
-                                        .orElseThrow(() -> new RuntimeException("Follower not found"));
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
+                        if (!userRepository.existsById(followerId)) {
+                                throw new RuntimeException("Follower not found");
+                        }
 
-                        if (user.getFollowers().contains(follower)) {
+                        if (userRepository.addFollower(userId, followerId) == 0) {
                                 return BaseResponse.<Void>builder()
                                                 .statusCode(400)
                                                 .isSuccess(false)
                                                 .message("Already following this user")
                                                 .build();
                         }
-
-                        user.getFollowers().add(follower);
-                        userRepository.save(user);
+                        followGraph.followed(followerId, userId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -242,21 +251,21 @@ public class UserService {
         @Transactional
         public BaseResponse<Void> unfollowUser(Long userId, Long followerId) {
                 try {
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
-                        User follower = userRepository.findById(followerId)
-                                        .orElseThrow(() -> new RuntimeException("Follower not found"));
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
+                        if (!userRepository.existsById(followerId)) {
+                                throw new RuntimeException("Follower not found");
+                        }
 
-                        if (!user.getFollowers().contains(follower)) {
+                        if (userRepository.removeFollower(userId, followerId) == 0) {
                                 return BaseResponse.<Void>builder()
                                                 .statusCode(400)
                                                 .isSuccess(false)
                                                 .message("Not following this user")
                                                 .build();
                         }
-
-                        user.getFollowers().remove(follower);
-                        userRepository.save(user);
+                        followGraph.unfollowed(followerId, userId);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -272,21 +281,23 @@ public class UserService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<UserResponse>> getFollowers(Long userId) {
+        public BaseResponse<List<UserCardResponse>> getFollowers(Long userId, Long after, int limit) {
                 try {
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
-                        List<UserResponse> responses = user.getFollowers().stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
-                        return BaseResponse.<List<UserResponse>>builder()
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<UserCardResponse> cards = userRepository.findFollowerCardsAfter(
+                                        userId, Pagination.start(after), Pagination.probe(pageSize));
+                        return BaseResponse.<List<UserCardResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Success")
-                                        .data(responses)
+                                        .data(Pagination.page(cards, pageSize))
+                                        .nextCursor(Pagination.nextCursor(cards, pageSize, UserCardResponse::getId))
                                         .build();
                 } catch (RuntimeException e) {
-                        return BaseResponse.<List<UserResponse>>builder()
+                        return BaseResponse.<List<UserCardResponse>>builder()
                                         .statusCode(404)
                                         .isSuccess(false)
                                         .message(e.getMessage())
@@ -295,21 +306,23 @@ public class UserService {
         }
 
         @Transactional(readOnly = true)
-        public BaseResponse<List<UserResponse>> getFollowing(Long userId) {
+        public BaseResponse<List<UserCardResponse>> getFollowing(Long userId, Long after, int limit) {
                 try {
-                        User user = userRepository.findById(userId)
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
-                        List<UserResponse> responses = user.getFollowing().stream()
-                                        .map(this::mapToResponse)
-                                        .toList();
-                        return BaseResponse.<List<UserResponse>>builder()
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<UserCardResponse> cards = userRepository.findFollowingCardsAfter(
+                                        userId, Pagination.start(after), Pagination.probe(pageSize));
+                        return BaseResponse.<List<UserCardResponse>>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
                                         .message("Success")
-                                        .data(responses)
+                                        .data(Pagination.page(cards, pageSize))
+                                        .nextCursor(Pagination.nextCursor(cards, pageSize, UserCardResponse::getId))
                                         .build();
                 } catch (RuntimeException e) {
-                        return BaseResponse.<List<UserResponse>>builder()
+                        return BaseResponse.<List<UserCardResponse>>builder()
                                         .statusCode(404)
                                         .isSuccess(false)
                                         .message(e.getMessage())
@@ -328,6 +341,8 @@ public class UserService {
                                                 .build();
                         }
                         userRepository.deleteById(id);
+                        libraryCache.invalidate(id);
+                        followGraph.removed(id);
                         return BaseResponse.<Void>builder()
                                         .statusCode(200)
                                         .isSuccess(true)
@@ -342,7 +357,111 @@ public class UserService {
                 }
         }
 
-        private UserResponse mapToResponse(User user) {
+        @Transactional(readOnly = true)
+        public BaseResponse<List<UserCardResponse>> getMutuals(Long userId, Long after, int limit) {
+                try {
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
+                        int pageSize = Pagination.clampLimit(limit);
+                        List<Long> ids = followGraph.mutuals(userId, Pagination.start(after), pageSize + 1);
+                        return BaseResponse.<List<UserCardResponse>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Success")
+                                        .data(cards(Pagination.page(ids, pageSize)))
+                                        .nextCursor(Pagination.nextCursor(ids, pageSize, Function.identity()))
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<UserCardResponse>>builder()
+                                        .statusCode(404)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        @Transactional(readOnly = true)
+        public BaseResponse<List<UserCardResponse>> getSuggestions(Long userId, int limit) {
+                try {
+                        int size = Math.min(limit <= 0 ? MAX_SUGGESTIONS : limit, MAX_SUGGESTIONS);
+                        return BaseResponse.<List<UserCardResponse>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Success")
+                                        .data(cards(followGraph.suggestions(userId, size)))
+                                        .build();
+                } catch (Exception e) {
+                        return BaseResponse.<List<UserCardResponse>>builder()
+                                        .statusCode(500)
+                                        .isSuccess(false)
+                                        .message("Failed to get suggestions: " + e.getMessage())
+                                        .build();
+                }
+        }
+
+        // Pages of ids behind the counts in UserResponse, keyed by the path segment that names them.
+        @Transactional(readOnly = true)
+        public BaseResponse<List<Long>> getIds(Long userId, String collection, Long after, int limit) {
+                try {
+                        if (!userRepository.existsById(userId)) {
+                                throw new RuntimeException("User not found");
+                        }
+                        int pageSize = Pagination.clampLimit(limit);
+                        long start = Pagination.start(after);
+                        List<Long> ids = switch (collection) {
+                                case "playlists" -> userRepository.findPlaylistIdsAfter(userId, start, pageSize + 1);
+                                case "saved-tracks" -> userRepository.findSavedTrackIdsAfter(userId, start, pageSize + 1);
+                                case "saved-albums" -> userRepository.findSavedAlbumIdsAfter(userId, start, pageSize + 1);
+                                case "followed-artists" ->
+                                        userRepository.findFollowedArtistIdsAfter(userId, start, pageSize + 1);
+                                case "followers" -> userRepository.findFollowerIdsAfter(userId, start, pageSize + 1);
+                                case "following" -> userRepository.findFollowingIdsAfter(userId, start, pageSize + 1);
+                                default -> throw new IllegalArgumentException("Unknown collection: " + collection);
+                        };
+                        return BaseResponse.<List<Long>>builder()
+                                        .statusCode(200)
+                                        .isSuccess(true)
+                                        .message("Success")
+                                        .data(Pagination.page(ids, pageSize))
+                                        .nextCursor(Pagination.nextCursor(ids, pageSize, Function.identity()))
+                                        .build();
+                } catch (IllegalArgumentException e) {
+                        return BaseResponse.<List<Long>>builder()
+                                        .statusCode(400)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                } catch (RuntimeException e) {
+                        return BaseResponse.<List<Long>>builder()
+                                        .statusCode(404)
+                                        .isSuccess(false)
+                                        .message(e.getMessage())
+                                        .build();
+                }
+        }
+
+        private List<UserCardResponse> cards(List<Long> ids) {
+                if (ids.isEmpty()) {
+                        return List.of();
+                }
+                return IdOrdering.inOrder(ids, userRepository.findCardsByIdIn(ids), UserCardResponse::getId);
+        }
+
+        // One aggregate query for the whole list instead of six collection loads per user.
+        private List<UserResponse> toResponses(List<User> users) {
+                if (users.isEmpty()) {
+                        return List.of();
+                }
+                Map<Long, UserCountsView> counts = userRepository.findCounts(
+                                users.stream().map(User::getId).toList()).stream()
+                                .collect(Collectors.toMap(UserCountsView::getUserId, Function.identity()));
+                return users.stream()
+                                .map(user -> mapToResponse(user, counts.get(user.getId())))
+                                .toList();
+        }
+
+        private UserResponse mapToResponse(User user, UserCountsView counts) {
                 return UserResponse.builder()
                                 .id(user.getId())
                                 .username(user.getUsername())
@@ -350,26 +469,14 @@ public class UserService {
                                 .displayName(user.getDisplayName())
                                 .bio(user.getBio())
                                 .imageUrl(user.getImageUrl())
-                                .playlistIds(user.getPlaylists().stream()
-                                                .map(playlist -> playlist.getId())
-                                                .collect(Collectors.toSet()))
-                                .savedTrackIds(user.getSavedTracks().stream()
-                                                .map(track -> track.getId())
-                                                .collect(Collectors.toSet()))
-                                .savedAlbumIds(user.getSavedAlbums().stream()
-                                                .map(album -> album.getId())
-                                                .collect(Collectors.toSet()))
-                                .followedArtistIds(user.getFollowedArtists().stream()
-                                                .map(artist -> artist.getId())
-                                                .collect(Collectors.toSet()))
-                                .followerIds(user.getFollowers().stream()
-                                                .map(follower -> follower.getId())
-                                                .collect(Collectors.toSet()))
-                                .followingIds(user.getFollowing().stream()
-                                                .map(following -> following.getId())
-                                                .collect(Collectors.toSet()))
+                                .playlistCount(counts.getPlaylistCount())
+                                .savedTrackCount(counts.getSavedTrackCount())
+                                .savedAlbumCount(counts.getSavedAlbumCount())
+                                .followedArtistCount(counts.getFollowedArtistCount())
+                                .followerCount(counts.getFollowerCount())
+                                .followingCount(counts.getFollowingCount())
                                 .createdAt(user.getCreatedAt())
                                 .updatedAt(user.getUpdatedAt())
                                 .build();
         }
-}
\ No newline at end of file
+}
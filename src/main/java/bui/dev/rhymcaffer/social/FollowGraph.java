@@ -0,0 +1,184 @@
+package bui.dev.rhymcaffer.social;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who follows whom, as a sorted long[] of neighbor ids per user in each direction.
+ * Arrays are never modified once published: a follow or unfollow swaps in a copy, so
+ * readers walk a consistent neighbor list without taking a lock.
+ */
+public class FollowGraph {
+
+    private static final long[] NONE = new long[0];
+
+    private final Map<Long, long[]> following = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> followers = new ConcurrentHashMap<>();
+
+    public void follow(long followerId, long userId) {
+        following.compute(followerId, (id, ids) -> insert(ids, userId));
+        followers.compute(userId, (id, ids) -> insert(ids, followerId));
+    }
+
+    public void unfollow(long followerId, long userId) {
+        following.computeIfPresent(followerId, (id, ids) -> delete(ids, userId));
+        followers.computeIfPresent(userId, (id, ids) -> delete(ids, followerId));
+    }
+
+    public void removeUser(long userId) {
+        for (long target : orNone(following.remove(userId))) {
+            followers.computeIfPresent(target, (id, ids) -> delete(ids, userId));
+        }
+        for (long follower : orNone(followers.remove(userId))) {
+            following.computeIfPresent(follower, (id, ids) -> delete(ids, userId));
+        }
+    }
+
+    public void clear() {
+        following.clear();
+        followers.clear();
+    }
+
+    public long[] following(long userId) {
+        return orNone(following.get(userId));
+    }
+
+    public long[] followers(long userId) {
+        return orNone(followers.get(userId));
+    }
+
+    public long edgeCount() {
+        return following.values().stream().mapToLong(ids -> ids.length).sum();
+    }
+
+    // Users who follow userId and are followed back, ascending from the first id above after.
+    public List<Long> mutuals(long userId, long after, int limit) {
+        long[] out = following(userId);
+        long[] in = followers(userId);
+        List<Long> result = new ArrayList<>(Math.min(limit, Math.min(out.length, in.length)));
+        int i = firstAbove(out, after);
+        int j = firstAbove(in, after);
+        while (i < out.length && j < in.length && result.size() < limit) {
+            if (out[i] < in[j]) {
+                i++;
+            } else if (out[i] > in[j]) {
+                j++;
+            } else {
+                result.add(out[i]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Users followed by the people userId follows, ranked by how many of them do, excluding
+     * userId and anyone already followed. maxVisits caps the two-hop walk for users who
+     * follow very popular accounts.
+     */
+    public List<Long> suggestions(long userId, int limit, int maxVisits) {
+        long[] out = following(userId);
+        Map<Long, Integer> counts = new HashMap<>();
+        int visits = 0;
+        walk:
+        for (long friend : out) {
+            for (long candidate : following(friend)) {
+                if (++visits > maxVisits) {
+                    break walk;
+                }
+                if (candidate != userId && Arrays.binarySearch(out, candidate) < 0) {
+                    counts.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // Replaces the whole graph; edges are collected first so large lists are sorted once
+    // instead of being copied on every insert.
+    public void load(Loader loader) {
+        clear();
+        loader.following.forEach((id, run) -> following.put(id, run.toSortedArray()));
+        loader.followers.forEach((id, run) -> followers.put(id, run.toSortedArray()));
+    }
+
+    public static class Loader {
+
+        private final Map<Long, Run> following = new HashMap<>();
+        private final Map<Long, Run> followers = new HashMap<>();
+
+        public void add(long followerId, long userId) {
+            following.computeIfAbsent(followerId, id -> new Run()).add(userId);
+            followers.computeIfAbsent(userId, id -> new Run()).add(followerId);
+        }
+    }
+
+    private static final class Run {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        if (ids == null) {
+            return new long[] { id };
+        }
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int at = -index - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    // Returning null drops the map entry once a user has no neighbors left in that direction.
+    private static long[] delete(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, index);
+        System.arraycopy(ids, index + 1, copy, index, ids.length - index - 1);
+        return copy;
+    }
+
+    private static int firstAbove(long[] ids, long after) {
+        int index = Arrays.binarySearch(ids, after);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static long[] orNone(long[] ids) {
+        return ids == null ? NONE : ids;
+    }
+}
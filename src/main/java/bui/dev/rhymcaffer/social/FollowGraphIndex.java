@@ -0,0 +1,92 @@
+package bui.dev.rhymcaffer.social;
+
+import bui.dev.rhymcaffer.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The follow graph, served from memory. Loaded from user_followers once the application is
+ * ready and kept current by UserService's follow, unfollow and delete paths. A rebuild loads
+ * into a fresh graph while the current one keeps serving; edge changes made meanwhile are
+ * journaled and replayed onto the fresh graph before it is swapped in, so a follow committed
+ * after the SELECT read past it is not lost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FollowGraphIndex {
+
+    private static final int MAX_SUGGESTION_VISITS = 200_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    // Writers hold the lock so a change lands in the journal and the graph it is applied to
+    // together; readers only follow the volatile reference.
+    private final Object lock = new Object();
+    private volatile FollowGraph graph = new FollowGraph();
+    private List<Consumer<FollowGraph>> journal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (lock) {
+            journal = new ArrayList<>();
+        }
+        FollowGraph fresh = new FollowGraph();
+        try {
+            FollowGraph.Loader loader = new FollowGraph.Loader();
+            RowCallbackHandler edge = row -> loader.add(row.getLong(1), row.getLong(2));
+            jdbcTemplate.query("SELECT follower_id, following_id FROM user_followers", edge);
+            fresh.load(loader);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                journal = null;
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            // Follow, unfollow and remove are idempotent, so replaying a change the SELECT
+            // already saw leaves the graph as it is.
+            journal.forEach(change -> change.accept(fresh));
+            journal = null;
+            graph = fresh;
+        }
+        log.info("Follow graph built with {} edges", fresh.edgeCount());
+    }
+
+    public List<Long> mutuals(Long userId, long after, int limit) {
+        return graph.mutuals(userId, after, limit);
+    }
+
+    public List<Long> suggestions(Long userId, int limit) {
+        return graph.suggestions(userId, limit, MAX_SUGGESTION_VISITS);
+    }
+
+    public void followed(Long followerId, Long userId) {
+        AfterCommit.run(() -> apply(target -> target.follow(followerId, userId)));
+    }
+
+    public void unfollowed(Long followerId, Long userId) {
+        AfterCommit.run(() -> apply(target -> target.unfollow(followerId, userId)));
+    }
+
+    public void removed(Long userId) {
+        AfterCommit.run(() -> apply(target -> target.removeUser(userId)));
+    }
+
+    private void apply(Consumer<FollowGraph> change) {
+        synchronized (lock) {
+            change.accept(graph);
+            if (journal != null) {
+                journal.add(change);
+            }
+        }
+    }
+}
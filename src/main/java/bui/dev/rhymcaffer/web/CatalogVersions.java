@@ -0,0 +1,80 @@
+package bui.dev.rhymcaffer.web;
+
+import bui.dev.rhymcaffer.repository.AlbumRepository;
+import bui.dev.rhymcaffer.repository.ArtistRepository;
+import bui.dev.rhymcaffer.repository.PlaylistRepository;
+import bui.dev.rhymcaffer.repository.TrackRepository;
+import bui.dev.rhymcaffer.repository.projection.VersionRow;
+import bui.dev.rhymcaffer.repository.projection.VersionSum;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Validators for single-entity responses, read with a few aggregate queries instead of
+ * loading and mapping the entity. The tag combines the entity's own version with fingerprints
+ * of the rows its response embeds, so editing an embedded artist or moving a track between
+ * albums changes it too. Those tags carry no Last-Modified: the newest embedded row says nothing
+ * about one that was removed, and an If-Modified-Since check would answer 304 after a removal.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogVersions {
+
+    public enum Resource {
+        TRACK(true), ALBUM(true), ARTIST(true), PLAYLIST(false);
+
+        // Whether shared caches (the CDN) may store the response.
+        private final boolean shared;
+
+        Resource(boolean shared) {
+            this.shared = shared;
+        }
+
+        public boolean isShared() {
+            return shared;
+        }
+    }
+
+    public record Validator(String etag, long lastModified) {
+    }
+
+    private final TrackRepository trackRepository;
+    private final AlbumRepository albumRepository;
+    private final ArtistRepository artistRepository;
+    private final PlaylistRepository playlistRepository;
+
+    public Optional<Validator> lookup(Resource resource, Long id) {
+        return switch (resource) {
+            case TRACK -> trackRepository.findVersionById(id)
+                    .map(track -> strong(track, artistRepository.sumVersionsByTrack(id)));
+            case ALBUM -> albumRepository.findVersionById(id)
+                    .map(album -> strong(album, trackRepository.sumVersionsByAlbum(id)));
+            case ARTIST -> artistRepository.findVersionById(id)
+                    .map(artist -> strong(artist,
+                            trackRepository.sumVersionsByArtist(id),
+                            albumRepository.sumVersionsByArtist(id),
+                            trackRepository.sumVersionsByAlbumArtist(id)));
+            // The snapshot id; weak because follower counts change without a new snapshot.
+            case PLAYLIST -> playlistRepository.findVersionById(id)
+                    .map(playlist -> new Validator("W/\"" + playlist.version() + "\"",
+                            epochMillis(playlist.updatedAt())));
+        };
+    }
+
+    private static Validator strong(VersionRow own, VersionSum... embedded) {
+        String etag = Stream.of(embedded)
+                .map(sum -> sum.members() + "." + sum.digest())
+                .collect(Collectors.joining("-", "\"" + own.version() + "-", "\""));
+        return new Validator(etag, -1);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,21 @@
+package bui.dev.rhymcaffer.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a single-entity GET whose ETag and Last-Modified come from {@link CatalogVersions}.
+ * {@link ConditionalGetInterceptor} answers matching If-None-Match / If-Modified-Since
+ * requests with 304 before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    CatalogVersions.Resource value();
+
+    // Name of the path variable holding the entity id.
+    String idVariable() default "id";
+}
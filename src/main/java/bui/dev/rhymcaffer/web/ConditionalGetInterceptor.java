@@ -0,0 +1,68 @@
+package bui.dev.rhymcaffer.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersions versions;
+    private final CacheControl sharedCacheControl;
+    private final CacheControl privateCacheControl = CacheControl.noCache().cachePrivate();
+
+    public ConditionalGetInterceptor(
+            CatalogVersions versions,
+            @Value("${catalog.http.max-age:60s}") Duration maxAge) {
+        this.versions = versions;
+        this.sharedCacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        ConditionalGet conditional = method.getMethodAnnotation(ConditionalGet.class);
+        if (conditional == null) {
+            return true;
+        }
+        Long id = pathId(request, conditional.idVariable());
+        if (id == null) {
+            return true;
+        }
+        // Unknown ids fall through to the handler, which answers with its own not-found body.
+        Optional<CatalogVersions.Validator> validator = versions.lookup(conditional.value(), id);
+        if (validator.isEmpty()) {
+            return true;
+        }
+        CacheControl cacheControl = conditional.value().isShared() ? sharedCacheControl : privateCacheControl;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        return !new ServletWebRequest(request, response)
+                .checkNotModified(validator.get().etag(), validator.get().lastModified());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long pathId(HttpServletRequest request, String name) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = variables == null ? null : variables.get(name);
+        try {
+            return value == null ? null : Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
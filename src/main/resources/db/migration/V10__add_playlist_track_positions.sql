@@ -0,0 +1,15 @@
+-- Turn playlist_tracks into ordered playlist entries: a surrogate key so a track can appear
+-- more than once, and a gap-spaced position so inserts and moves rewrite a single row
+ALTER TABLE playlist_tracks
+    ADD COLUMN position BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN added_at DATETIME(6),
+    ADD INDEX idx_playlist_tracks_position (playlist_id, position);
+
+ALTER TABLE playlist_tracks
+    DROP PRIMARY KEY,
+    ADD COLUMN id BIGINT AUTO_INCREMENT PRIMARY KEY FIRST;
+
+UPDATE playlist_tracks pt
+    JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY playlist_id ORDER BY id) * 1024 AS position
+          FROM playlist_tracks) numbered ON numbered.id = pt.id
+SET pt.position = numbered.position;
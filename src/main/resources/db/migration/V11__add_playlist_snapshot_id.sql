@@ -0,0 +1,2 @@
+-- Bumped by every playlist mutation except follows; served as the playlist's ETag
+ALTER TABLE playlists ADD COLUMN snapshot_id BIGINT NOT NULL DEFAULT 0;
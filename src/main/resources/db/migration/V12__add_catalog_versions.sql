@@ -0,0 +1,4 @@
+-- Optimistic-lock versions for the catalog; also the source of the ETags on single-entity GETs
+ALTER TABLE tracks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE albums ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE artists ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,32 @@
+-- Release dates become real dates; precision records whether the original was YYYY, YYYY-MM or YYYY-MM-DD
+ALTER TABLE albums ADD COLUMN release_date_precision VARCHAR(5);
+
+-- Anything that is not a real YYYY, YYYY-MM or YYYY-MM-DD (including 2021-02-30 or 2020-13) is cleared here,
+-- because the MODIFY below cannot be rolled back if it fails. Date functions are avoided on purpose:
+-- in strict mode their warnings abort the UPDATE. CASE stops at the first matching branch,
+-- so the month and day checks only ever see well-shaped values.
+UPDATE albums SET release_date = NULL
+WHERE CASE
+    WHEN release_date NOT REGEXP '^[0-9]{4}(-[0-9]{2}(-[0-9]{2})?)?$' THEN TRUE
+    WHEN CHAR_LENGTH(release_date) = 4 THEN FALSE
+    WHEN SUBSTRING(release_date, 6, 2) NOT BETWEEN '01' AND '12' THEN TRUE
+    WHEN CHAR_LENGTH(release_date) = 7 THEN FALSE
+    ELSE SUBSTRING(release_date, 9, 2) < '01' OR SUBSTRING(release_date, 9, 2) > CASE SUBSTRING(release_date, 6, 2)
+        WHEN '02' THEN IF(CAST(LEFT(release_date, 4) AS UNSIGNED) % 4 = 0
+            AND (CAST(LEFT(release_date, 4) AS UNSIGNED) % 100 <> 0
+                OR CAST(LEFT(release_date, 4) AS UNSIGNED) % 400 = 0), '29', '28')
+        WHEN '04' THEN '30' WHEN '06' THEN '30' WHEN '09' THEN '30' WHEN '11' THEN '30'
+        ELSE '31' END
+END;
+
+UPDATE albums SET
+    release_date_precision = CASE CHAR_LENGTH(release_date) WHEN 4 THEN 'YEAR' WHEN 7 THEN 'MONTH' ELSE 'DAY' END,
+    release_date = CASE CHAR_LENGTH(release_date)
+        WHEN 4 THEN CONCAT(release_date, '-01-01')
+        WHEN 7 THEN CONCAT(release_date, '-01')
+        ELSE release_date END
+WHERE release_date IS NOT NULL;
+
+ALTER TABLE albums MODIFY release_date DATE;
+
+CREATE INDEX idx_albums_release_date ON albums (release_date, id);
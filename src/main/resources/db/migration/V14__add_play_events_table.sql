@@ -0,0 +1,10 @@
+-- Append-only log of plays, written in batches by the ingestion buffer
+CREATE TABLE play_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    track_id BIGINT NOT NULL,
+    played_at DATETIME(6) NOT NULL,
+    ms_played INT,
+    INDEX idx_play_events_played_at (played_at),
+    INDEX idx_play_events_track (track_id, played_at)
+);
@@ -0,0 +1,3 @@
+-- Leaderboard pages past the in-memory top walk these in popularity order
+CREATE INDEX idx_tracks_popularity ON tracks (popularity, id);
+CREATE INDEX idx_artists_popularity ON artists (popularity, id);
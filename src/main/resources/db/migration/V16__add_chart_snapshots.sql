@@ -0,0 +1,31 @@
+-- Saves with a timestamp, so charts can count them over a window
+CREATE TABLE save_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    track_id BIGINT NOT NULL,
+    saved_at DATETIME(6) NOT NULL,
+    INDEX idx_save_events_saved_at (saved_at),
+    INDEX idx_save_events_track (track_id, saved_at)
+);
+
+-- Published charts; rows are written once per chart and date and never updated
+CREATE TABLE chart_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    chart VARCHAR(10) NOT NULL,
+    chart_date DATE NOT NULL,
+    window_start DATETIME(6) NOT NULL,
+    window_end DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    CONSTRAINT uk_chart_snapshots_chart_date UNIQUE (chart, chart_date)
+);
+
+CREATE TABLE chart_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    snapshot_id BIGINT NOT NULL,
+    position INT NOT NULL,
+    track_id BIGINT NOT NULL,
+    plays BIGINT NOT NULL,
+    saves BIGINT NOT NULL,
+    CONSTRAINT uk_chart_entries_position UNIQUE (snapshot_id, position),
+    CONSTRAINT fk_chart_entries_snapshot FOREIGN KEY (snapshot_id) REFERENCES chart_snapshots (id)
+);
@@ -0,0 +1,4 @@
+-- Charts are published per listener country as well as worldwide
+ALTER TABLE chart_snapshots ADD COLUMN market VARCHAR(255) NOT NULL DEFAULT 'GLOBAL' AFTER chart;
+ALTER TABLE chart_snapshots DROP INDEX uk_chart_snapshots_chart_date;
+ALTER TABLE chart_snapshots ADD CONSTRAINT uk_chart_snapshots_market_date UNIQUE (chart, market, chart_date);
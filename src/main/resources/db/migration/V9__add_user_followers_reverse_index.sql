@@ -0,0 +1,3 @@
+-- Index user_followers by follower so "who does this user follow" pages over (follower_id, following_id)
+-- the same way "who follows this user" pages over the primary key
+CREATE INDEX idx_user_followers_follower ON user_followers (follower_id, following_id);
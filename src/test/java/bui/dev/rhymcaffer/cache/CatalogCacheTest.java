@@ -0,0 +1,139 @@
+package bui.dev.rhymcaffer.cache;
+
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.dto.response.CacheStatsResponse;
+import bui.dev.rhymcaffer.dto.response.TrackResponse;
+import bui.dev.rhymcaffer.library.LibraryCache;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.popularity.Leaderboards;
+import bui.dev.rhymcaffer.popularity.PopularityEngine;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import bui.dev.rhymcaffer.service.ReferenceResolver;
+import bui.dev.rhymcaffer.service.TrackService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({TrackService.class, ReferenceResolver.class, CatalogSearchIndex.class, CatalogCache.class, LibraryCache.class,
+        PopularityEngine.class, Leaderboards.class, Markets.class})
+class CatalogCacheTest {
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    @Autowired
+    private PopularityEngine popularityEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Cached items are only readable by sessions that start after the put,
+    // so this test commits its own transactions instead of running in the test one.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void repeatedTrackReadsAreServedFromTheSecondLevelCache() {
+        Long trackId = new TransactionTemplate(transactionManager).execute(status -> persistTrack());
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+
+        trackService.getTrack(trackId);
+        statistics.clear();
+
+        TrackResponse response = trackService.getTrack(trackId).getData();
+
+        assertThat(response.getArtists()).extracting("name").containsExactly("cached artist");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        CacheStatsResponse stats = catalogCache.getStats().getData();
+        assertThat(stats.getHitCount()).isGreaterThanOrEqualTo(3);
+        assertThat(stats.getRegions()).extracting(CacheStatsResponse.Region::getName)
+                .contains(CatalogCache.TRACK_ARTISTS);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void popularTracksAreServedWithoutStatementsOnceCached() {
+        new TransactionTemplate(transactionManager).execute(status -> persistTrack());
+        leaderboards.reload();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        trackService.getPopularTracks(null, null, 10);
+        statistics.clear();
+
+        assertThat(trackService.getPopularTracks(null, null, 10).getData())
+                .extracting(TrackResponse::getName).contains("cached track");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void popularityRefreshEvictsOnlyTheTracksItRewrote() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long played = tx.execute(status -> persistTrack());
+        Long quiet = tx.execute(status -> persistTrack());
+        popularityEngine.recompute();
+        trackService.getTrack(played);
+        trackService.getTrack(quiet);
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        assertThat(cache.containsEntity(Track.class, played)).isTrue();
+        assertThat(cache.containsEntity(Track.class, quiet)).isTrue();
+
+        jdbcTemplate.update("INSERT INTO play_events (user_id, track_id, played_at) VALUES (?, ?, ?)",
+                1L, played, Timestamp.valueOf(LocalDateTime.now()));
+        popularityEngine.refresh();
+
+        assertThat(cache.containsEntity(Track.class, played)).isFalse();
+        assertThat(cache.containsEntity(Track.class, quiet)).isTrue();
+    }
+
+    private Long persistTrack() {
+        Artist artist = Artist.builder()
+                .name("cached artist")
+                .tracks(new HashSet<>())
+                .albums(new HashSet<>())
+                .followers(new HashSet<>())
+                .build();
+        entityManager.persist(artist);
+        Track track = Track.builder()
+                .name("cached track")
+                .popularity(80)
+                .artists(new HashSet<>(Set.of(artist)))
+                .playlists(new HashSet<>())
+                .savedByUsers(new HashSet<>())
+                .build();
+        entityManager.persist(track);
+        return track.getId();
+    }
+}
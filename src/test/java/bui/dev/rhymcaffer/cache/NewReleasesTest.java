@@ -0,0 +1,82 @@
+package bui.dev.rhymcaffer.cache;
+
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "albums.new-releases.snapshot-size=2"
+})
+@Import({NewReleases.class, Markets.class})
+class NewReleasesTest {
+
+    @Autowired
+    private NewReleases newReleases;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Invalidation waits for a commit, so this test commits its own transactions.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void servesTheNewestReleasesFromMemoryUntilAnAlbumIsWritten() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            album("old", "2019");
+            album("mid", "2023-06");
+            album("new", "2024-03-15");
+            album("announced", LocalDate.now().plusDays(30).toString());
+        });
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        assertThat(names(newReleases.read(0, 2))).containsExactly("new", "mid");
+        statistics.clear();
+        assertThat(names(newReleases.read(0, 2))).containsExactly("new", "mid");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(names(newReleases.read(1, 5))).containsExactly("mid", "old");
+        assertThat(newReleases.read(0, 1).get(0).album().releaseDatePrecision())
+                .isEqualTo(ReleaseDatePrecision.DAY);
+
+        tx.executeWithoutResult(status -> {
+            album("today", LocalDate.now().toString());
+            newReleases.invalidate();
+        });
+
+        assertThat(names(newReleases.read(0, 2))).containsExactly("today", "new");
+    }
+
+    private void album(String name, String releaseDate) {
+        entityManager.persist(Album.builder()
+                .name(name)
+                .releaseDate(ReleaseDatePrecision.parse(releaseDate))
+                .releaseDatePrecision(ReleaseDatePrecision.of(releaseDate))
+                .build());
+    }
+
+    private static List<String> names(List<NewReleases.Release> releases) {
+        return releases.stream().map(release -> release.album().name()).toList();
+    }
+}
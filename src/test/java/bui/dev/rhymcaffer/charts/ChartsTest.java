@@ -0,0 +1,193 @@
+package bui.dev.rhymcaffer.charts;
+
+import bui.dev.rhymcaffer.model.Chart;
+import bui.dev.rhymcaffer.model.ChartSnapshot;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.popularity.Leaderboard;
+import bui.dev.rhymcaffer.repository.ChartSnapshotRepository;
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({Charts.class, Markets.class})
+class ChartsTest {
+
+    // Today's charts are published when the context starts, so this builds the next ones.
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+    // No users row, so these plays count worldwide only.
+    private static final long ANONYMOUS = 0L;
+
+    @Autowired
+    private Charts charts;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChartSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private Markets markets;
+
+    @Test
+    void ranksPlaysAndSavesInEachWindowAndKeepsPublishedCharts() {
+        Long steady = track("steady");
+        Long saved = track("saved");
+        Long lastWeek = track("last week");
+        Long listener = listener(" vn ");
+        LocalDateTime yesterday = DAY.minusDays(1).atTime(12, 0);
+        plays(ANONYMOUS, steady, yesterday, 3);
+        plays(listener, saved, yesterday, 1);
+        save(listener, saved, yesterday);
+        plays(ANONYMOUS, lastWeek, DAY.minusDays(5).atStartOfDay(), 10);
+        // On the chart date itself, so outside both windows.
+        plays(ANONYMOUS, lastWeek, DAY.atTime(1, 0), 100);
+
+        charts.build(DAY);
+
+        assertThat(trackIds(get(Chart.DAILY, DAY))).containsExactly(saved, steady);
+        assertThat(trackIds(get(Chart.WEEKLY, DAY))).containsExactly(lastWeek, saved, steady);
+        assertThat(get(Chart.WEEKLY, DAY).entries().get(1)).isEqualTo(new Charts.Entry(2, saved, 1, 1));
+        assertThat(trackIds(charts.get(Chart.DAILY, "VN", DAY).orElseThrow())).containsExactly(saved);
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(charts.latest(Chart.DAILY, Markets.GLOBAL).orElseThrow().date()).isEqualTo(DAY);
+        assertThat(charts.latest(Chart.WEEKLY, "VN").orElseThrow().date()).isEqualTo(DAY);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // A published chart is not rebuilt, however the activity changes.
+        plays(ANONYMOUS, steady, yesterday, 50);
+        charts.build(DAY);
+        assertThat(trackIds(get(Chart.DAILY, DAY))).containsExactly(saved, steady);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chart_snapshots WHERE chart_date = ?",
+                Integer.class, DAY)).isEqualTo(4);
+
+        charts.build(DAY.plusDays(1));
+        assertThat(charts.latest(Chart.DAILY, Markets.GLOBAL).orElseThrow().date()).isEqualTo(DAY.plusDays(1));
+        assertThat(trackIds(get(Chart.DAILY, DAY))).containsExactly(saved, steady);
+        assertThat(charts.get(Chart.DAILY, Markets.GLOBAL, DAY.minusDays(30))).isEmpty();
+    }
+
+    @Test
+    @DirtiesContext
+    void picksUpChartsAnotherInstancePublished() {
+        Long track = track("elsewhere");
+        Long listener = listener("VN");
+        plays(listener, track, DAY.minusDays(1).atTime(12, 0), 1);
+        charts.build(DAY);
+        LocalDate next = DAY.plusDays(1);
+        for (String market : List.of(Markets.GLOBAL, "VN")) {
+            snapshotRepository.save(ChartSnapshot.builder()
+                    .chart(Chart.DAILY)
+                    .market(market)
+                    .chartDate(next)
+                    .windowStart(DAY.atStartOfDay())
+                    .windowEnd(next.atStartOfDay())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+
+        charts.build(next);
+
+        assertThat(charts.latest(Chart.DAILY, Markets.GLOBAL).orElseThrow().date()).isEqualTo(next);
+        assertThat(charts.latest(Chart.DAILY, "VN").orElseThrow().date()).isEqualTo(next);
+    }
+
+    @Test
+    @DirtiesContext
+    void noListenerCountryTakesTheWorldwideSlot() {
+        Long track = track("anywhere");
+        Long listener = listener("global");
+        plays(listener, track, DAY.minusDays(1).atTime(12, 0), 1);
+
+        charts.build(DAY);
+
+        assertThat(trackIds(get(Chart.DAILY, DAY))).containsExactly(track);
+        assertThat(jdbcTemplate.queryForList("SELECT market FROM chart_snapshots WHERE chart_date = ?",
+                String.class, DAY)).containsOnly(Markets.GLOBAL);
+        assertThatThrownBy(() -> Markets.normalize(" global ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DirtiesContext
+    void nightlyBuildLoadsMarketsFromTheWeeklyGrouping() {
+        // Startup already published today's charts from an empty database.
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.update("DELETE FROM chart_entries WHERE snapshot_id IN "
+                + "(SELECT id FROM chart_snapshots WHERE chart_date = ?)", today);
+        jdbcTemplate.update("DELETE FROM chart_snapshots WHERE chart_date = ?", today);
+        Long first = track("first");
+        Long second = track("second");
+        Long listener = listener("VN");
+        plays(listener, first, today.minusDays(3).atStartOfDay(), 2);
+        plays(listener, second, today.minusDays(1).atStartOfDay(), 1);
+
+        charts.build();
+
+        assertThat(markets.get("VN").tracks().page(Leaderboard.TOP, 10)).extracting(IdPopularity::id)
+                .containsExactly(first, second);
+        assertThat(trackIds(charts.get(Chart.WEEKLY, "VN", today).orElseThrow())).containsExactly(first, second);
+    }
+
+    private Charts.Snapshot get(Chart chart, LocalDate date) {
+        return charts.get(chart, Markets.GLOBAL, date).orElseThrow();
+    }
+
+    private Long track(String name) {
+        Track track = Track.builder().name(name).build();
+        entityManager.persist(track);
+        return track.getId();
+    }
+
+    private Long listener(String country) {
+        User user = User.builder()
+                .username("listener")
+                .email("listener@example.com")
+                .password("secret")
+                .country(country)
+                .build();
+        entityManager.persist(user);
+        return user.getId();
+    }
+
+    private void plays(Long userId, Long trackId, LocalDateTime playedAt, int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO play_events (user_id, track_id, played_at) VALUES (?, ?, ?)",
+                    userId, trackId, Timestamp.valueOf(playedAt));
+        }
+    }
+
+    private void save(Long userId, Long trackId, LocalDateTime savedAt) {
+        jdbcTemplate.update("INSERT INTO save_events (user_id, track_id, saved_at) VALUES (?, ?, ?)",
+                userId, trackId, Timestamp.valueOf(savedAt));
+    }
+
+    private static List<Long> trackIds(Charts.Snapshot snapshot) {
+        return snapshot.entries().stream().map(Charts.Entry::trackId).toList();
+    }
+}
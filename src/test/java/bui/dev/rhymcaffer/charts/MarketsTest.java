@@ -0,0 +1,143 @@
+package bui.dev.rhymcaffer.charts;
+
+import bui.dev.rhymcaffer.cache.NewReleases;
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.ReleaseDatePrecision;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.popularity.Leaderboard;
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({Markets.class, NewReleases.class})
+class MarketsTest {
+
+    @Autowired
+    private Markets markets;
+
+    @Autowired
+    private NewReleases newReleases;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void partitionsLastWeeksActivityByListenerCountry() {
+        Artist first = artist("first");
+        Artist second = artist("second");
+        Album old = album("old", "2020", first);
+        Album recent = album("recent", LocalDate.now().minusDays(3).toString(), second);
+        album("unplayed", LocalDate.now().toString(), first);
+        Long oldTrack = track("old track", old, first);
+        Long recentTrack = track("recent track", recent, second);
+        Long single = track("single", null, first, second);
+        Long vietnam = listener("vn", " vn");
+        Long us = listener("us", "US");
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(12, 0);
+        plays(vietnam, oldTrack, yesterday, 2);
+        save(vietnam, recentTrack, yesterday);
+        plays(vietnam, single, yesterday, 1);
+        plays(us, single, yesterday, 4);
+        // Before the week-long window.
+        plays(vietnam, single, LocalDate.now().minusDays(8).atStartOfDay(), 10);
+        // Markets reads the join tables over JDBC, which does not flush pending collection rows.
+        entityManager.flush();
+
+        markets.reload();
+
+        assertThat(ids(markets.get("VN").tracks())).containsExactly(recentTrack, oldTrack, single);
+        assertThat(ids(markets.get("vn ").artists())).containsExactly(second.getId(), first.getId());
+        assertThat(ids(markets.get("US").tracks())).containsExactly(single);
+        assertThat(ids(markets.get("FR").tracks())).isEmpty();
+
+        assertThat(names(newReleases.read("VN", 0, 10))).containsExactly("recent", "old");
+        assertThat(names(newReleases.read("US", 0, 10))).isEmpty();
+        assertThat(names(newReleases.read(null, 0, 10))).containsExactly("unplayed", "recent", "old");
+        assertThat(names(newReleases.read("FR", 0, 10))).isEmpty();
+        // Markets without activity share the empty shelf rather than a snapshot each.
+        assertThat(cachedMarkets()).containsExactly("VN");
+    }
+
+    private Set<Object> cachedMarkets() {
+        return Set.copyOf(((Map<?, ?>) ReflectionTestUtils.getField(newReleases, "marketSnapshots")).keySet());
+    }
+
+    private static List<Long> ids(Leaderboard board) {
+        return board.page(Leaderboard.TOP, 10).stream().map(IdPopularity::id).toList();
+    }
+
+    private static List<String> names(List<NewReleases.Release> releases) {
+        return releases.stream().map(release -> release.album().name()).toList();
+    }
+
+    private Long listener(String username, String country) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .country(country)
+                .build();
+        entityManager.persist(user);
+        return user.getId();
+    }
+
+    private void plays(Long userId, Long trackId, LocalDateTime playedAt, int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO play_events (user_id, track_id, played_at) VALUES (?, ?, ?)",
+                    userId, trackId, Timestamp.valueOf(playedAt));
+        }
+    }
+
+    private void save(Long userId, Long trackId, LocalDateTime savedAt) {
+        jdbcTemplate.update("INSERT INTO save_events (user_id, track_id, saved_at) VALUES (?, ?, ?)",
+                userId, trackId, Timestamp.valueOf(savedAt));
+    }
+
+    private Artist artist(String name) {
+        Artist artist = Artist.builder().name(name).build();
+        entityManager.persist(artist);
+        return artist;
+    }
+
+    private Album album(String name, String releaseDate, Artist artist) {
+        Album album = Album.builder()
+                .name(name)
+                .releaseDate(ReleaseDatePrecision.parse(releaseDate))
+                .releaseDatePrecision(ReleaseDatePrecision.of(releaseDate))
+                .artists(new HashSet<>(Set.of(artist)))
+                .build();
+        entityManager.persist(album);
+        return album;
+    }
+
+    private Long track(String name, Album album, Artist... artists) {
+        Track track = Track.builder()
+                .name(name)
+                .album(album)
+                .artists(new HashSet<>(Set.of(artists)))
+                .build();
+        entityManager.persist(track);
+        return track.getId();
+    }
+}
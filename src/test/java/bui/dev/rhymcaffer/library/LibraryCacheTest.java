@@ -0,0 +1,70 @@
+package bui.dev.rhymcaffer.library;
+
+import bui.dev.rhymcaffer.repository.AlbumRepository;
+import bui.dev.rhymcaffer.repository.ArtistRepository;
+import bui.dev.rhymcaffer.repository.TrackRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LibraryCacheTest {
+
+    private TrackRepository trackRepository;
+    private LibraryCache libraryCache;
+
+    @BeforeEach
+    void setUp() {
+        trackRepository = mock(TrackRepository.class);
+        AlbumRepository albumRepository = mock(AlbumRepository.class);
+        ArtistRepository artistRepository = mock(ArtistRepository.class);
+        when(trackRepository.findSavedTrackIds(1L)).thenReturn(List.of(10L, 20L, 5_000_000_000L));
+        when(albumRepository.findSavedAlbumIds(1L)).thenReturn(List.of(10L));
+        libraryCache = new LibraryCache(trackRepository, albumRepository, artistRepository,
+                100, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void answersInRequestOrderAndLoadsOnce() {
+        assertThat(libraryCache.contains(1L, LibraryCache.Kind.TRACK, List.of(20L, 30L, 5_000_000_000L, 10L)))
+                .containsExactly(true, false, true, true);
+        assertThat(libraryCache.contains(1L, LibraryCache.Kind.ALBUM, List.of(20L, 10L)))
+                .containsExactly(false, true);
+        assertThat(libraryCache.contains(1L, LibraryCache.Kind.ARTIST, List.of(10L)))
+                .containsExactly(false);
+
+        verify(trackRepository, times(1)).findSavedTrackIds(1L);
+    }
+
+    @Test
+    void appliesWritesToLoadedLibraries() {
+        libraryCache.contains(1L, LibraryCache.Kind.TRACK, List.of(10L));
+
+        libraryCache.added(1L, LibraryCache.Kind.TRACK, 30L);
+        libraryCache.removed(1L, LibraryCache.Kind.TRACK, 10L);
+
+        assertThat(libraryCache.contains(1L, LibraryCache.Kind.TRACK, List.of(10L, 30L)))
+                .containsExactly(false, true);
+        verify(trackRepository, times(1)).findSavedTrackIds(1L);
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedRequests() {
+        List<Long> tooMany = LongStream.rangeClosed(1, LibraryCache.MAX_CONTAINS_IDS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> libraryCache.contains(1L, LibraryCache.Kind.TRACK, Collections.emptyList()))
+                .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> libraryCache.contains(1L, LibraryCache.Kind.TRACK, tooMany))
+                .isInstanceOf(RuntimeException.class);
+    }
+}
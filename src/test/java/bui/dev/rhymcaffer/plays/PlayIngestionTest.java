@@ -0,0 +1,72 @@
+package bui.dev.rhymcaffer.plays;
+
+import bui.dev.rhymcaffer.dto.response.PlayStatsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "plays.buffer.capacity=3",
+        "plays.writer.batch-size=2",
+        "plays.writer.retry-backoff-ms=1",
+        "plays.writer.auto-startup=false"
+})
+@Import(PlayIngestion.class)
+class PlayIngestionTest {
+
+    @Autowired
+    private PlayIngestion playIngestion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void refusesPlaysPastCapacityAndWritesTheRestInBatches() {
+        assertThat(playIngestion.offer(List.of(play(1), play(2)))).isEqualTo(2);
+        assertThat(playIngestion.offer(List.of(play(3), play(4), play(5)))).isEqualTo(1);
+
+        assertThat(playIngestion.drain()).isEqualTo(2);
+        assertThat(playIngestion.drain()).isEqualTo(1);
+        assertThat(playIngestion.drain()).isZero();
+
+        assertThat(jdbcTemplate.queryForList("SELECT track_id FROM play_events ORDER BY id", Long.class))
+                .containsExactly(1L, 2L, 3L);
+        PlayStatsResponse stats = playIngestion.getStats().getData();
+        assertThat(stats.getAccepted()).isEqualTo(3);
+        assertThat(stats.getDropped()).isEqualTo(2);
+        assertThat(stats.getWritten()).isEqualTo(3);
+        assertThat(stats.getBatches()).isEqualTo(2);
+        assertThat(stats.getBuffered()).isZero();
+        assertThat(stats.getMaxLatencyMs()).isGreaterThanOrEqualTo(stats.getAverageLatencyMs());
+    }
+
+    @Test
+    @DirtiesContext
+    void retriesAFailedBatchThenKeepsEveryRowItCanWrite() {
+        // Counters are shared with whichever test ran first in this context.
+        PlayStatsResponse before = playIngestion.getStats().getData();
+        Play broken = new Play(7L, 2L, null, 30_000, System.nanoTime());
+        playIngestion.offer(List.of(play(1), broken));
+
+        assertThat(playIngestion.drain()).isEqualTo(2);
+
+        assertThat(jdbcTemplate.queryForList("SELECT track_id FROM play_events", Long.class)).containsExactly(1L);
+        PlayStatsResponse after = playIngestion.getStats().getData();
+        assertThat(after.getRetried() - before.getRetried()).isEqualTo(3);
+        assertThat(after.getLost() - before.getLost()).isEqualTo(1);
+        assertThat(after.getWritten() - before.getWritten()).isEqualTo(1);
+    }
+
+    private static Play play(long trackId) {
+        return new Play(7L, trackId, LocalDateTime.now(), 30_000, System.nanoTime());
+    }
+}
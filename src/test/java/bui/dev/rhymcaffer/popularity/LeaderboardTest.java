@@ -0,0 +1,91 @@
+package bui.dev.rhymcaffer.popularity;
+
+import bui.dev.rhymcaffer.repository.projection.IdPopularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeaderboardTest {
+
+    // Stands in for the table: id -> popularity, read in leaderboard order.
+    private final Map<Long, Integer> rows = new TreeMap<>();
+    private int sourceReads;
+    private Leaderboard board;
+
+    @BeforeEach
+    void setUp() {
+        rows.put(1L, 50);
+        rows.put(2L, 90);
+        rows.put(3L, 70);
+        rows.put(4L, 90);
+        rows.put(5L, 10);
+        board = new Leaderboard(3, (after, limit) -> {
+            sourceReads++;
+            return rows.entrySet().stream()
+                    .map(row -> new IdPopularity(row.getKey(), row.getValue()))
+                    .sorted(Comparator.comparingInt(IdPopularity::popularity).reversed()
+                            .thenComparing(IdPopularity::id))
+                    .filter(row -> row.popularity() < after.popularity()
+                            || (row.popularity() == after.popularity() && row.id() > after.id()))
+                    .limit(limit)
+                    .toList();
+        });
+        board.reload();
+        sourceReads = 0;
+    }
+
+    @Test
+    void ranksByPopularityThenIdAndPagesFromMemory() {
+        assertThat(ids(board.page(Leaderboard.TOP, 2))).containsExactly(2L, 4L, 3L);
+        IdPopularity cursor = Leaderboard.cursor(Leaderboard.cursorOf(new IdPopularity(2L, 90)));
+        assertThat(ids(board.page(cursor, 1))).containsExactly(4L, 3L);
+        assertThat(sourceReads).isZero();
+    }
+
+    @Test
+    void pagesPastTheBoardReadTheSource() {
+        assertThat(ids(board.page(new IdPopularity(3L, 70), 5))).containsExactly(1L, 5L);
+        assertThat(sourceReads).isEqualTo(1);
+    }
+
+    @Test
+    void writesKeepTheBoardInOrderAndBounded() {
+        rows.put(5L, 95);
+        board.put(5L, 95);
+        assertThat(ids(board.page(Leaderboard.TOP, 2))).containsExactly(5L, 2L, 4L);
+
+        rows.remove(2L);
+        board.remove(2L);
+        assertThat(ids(board.page(Leaderboard.TOP, 1))).containsExactly(5L, 4L);
+
+        // Below the last entry of a partial board, so it is left to the source.
+        rows.put(6L, 5);
+        board.put(6L, 5);
+        assertThat(ids(board.page(new IdPopularity(4L, 90), 5))).containsExactly(3L, 1L, 6L);
+        assertThat(sourceReads).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThat(Leaderboard.cursor(null)).isEqualTo(Leaderboard.TOP);
+        assertThat(Leaderboard.cursor("70:3")).isEqualTo(new IdPopularity(3L, 70));
+        assertThatThrownBy(() -> Leaderboard.cursor("70"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor: 70");
+        assertThatThrownBy(() -> Leaderboard.cursor("70:3:1"))
+                .hasMessage("Invalid cursor: 70:3:1");
+        assertThatThrownBy(() -> Leaderboard.cursor("x:3"))
+                .hasMessage("Invalid cursor: x:3");
+    }
+
+    private static List<Long> ids(List<IdPopularity> page) {
+        return page.stream().map(IdPopularity::id).toList();
+    }
+}
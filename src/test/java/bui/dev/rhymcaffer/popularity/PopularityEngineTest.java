@@ -0,0 +1,96 @@
+package bui.dev.rhymcaffer.popularity;
+
+import bui.dev.rhymcaffer.cache.CatalogCache;
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.Track;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({PopularityEngine.class, Leaderboards.class, Markets.class, CatalogCache.class})
+class PopularityEngineTest {
+
+    @Autowired
+    private PopularityEngine popularityEngine;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void decayedPlaysRollUpToAlbumsAndArtists() {
+        Artist fresh = artist("fresh");
+        Artist faded = artist("faded");
+        Album album = Album.builder().name("album").popularity(40).artists(new HashSet<>(Set.of(fresh))).build();
+        entityManager.persist(album);
+        Track hit = track("hit", album, fresh, 10);
+        Track oldHit = track("old hit", null, faded, 90);
+        Track silent = track("silent", null, faded, 77);
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+        plays(hit, now, 10);
+        // One half-life ago, so each play counts for half.
+        plays(oldHit, now.minus(Duration.ofDays(7)), 10);
+
+        popularityEngine.recompute();
+
+        // log1p(5) / log1p(10) of the way to 100.
+        assertThat(popularity("tracks", hit.getId())).isEqualTo(100);
+        assertThat(popularity("tracks", oldHit.getId())).isEqualTo(75);
+        assertThat(popularity("tracks", silent.getId())).isZero();
+        assertThat(popularity("albums", album.getId())).isEqualTo(100);
+        assertThat(popularity("artists", fresh.getId())).isEqualTo(100);
+        assertThat(popularity("artists", faded.getId())).isEqualTo(75);
+
+        plays(oldHit, now, 30);
+        popularityEngine.refresh();
+
+        assertThat(popularity("tracks", oldHit.getId())).isEqualTo(100);
+        assertThat(popularity("artists", faded.getId())).isEqualTo(100);
+        assertThat(popularity("tracks", hit.getId())).isEqualTo(100);
+    }
+
+    private void plays(Track track, LocalDateTime playedAt, int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO play_events (user_id, track_id, played_at) VALUES (?, ?, ?)",
+                    1L, track.getId(), Timestamp.valueOf(playedAt));
+        }
+    }
+
+    private int popularity(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT popularity FROM " + table + " WHERE id = ?", Integer.class, id);
+    }
+
+    private Artist artist(String name) {
+        Artist artist = Artist.builder().name(name).build();
+        entityManager.persist(artist);
+        return artist;
+    }
+
+    private Track track(String name, Album album, Artist artist, int popularity) {
+        Track track = Track.builder()
+                .name(name)
+                .album(album)
+                .popularity(popularity)
+                .artists(new HashSet<>(Set.of(artist)))
+                .build();
+        entityManager.persist(track);
+        return track;
+    }
+}
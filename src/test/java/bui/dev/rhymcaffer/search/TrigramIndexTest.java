@@ -0,0 +1,82 @@
+package bui.dev.rhymcaffer.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1L, "Love Story");
+        index.put(2L, "Lovely");
+        index.put(3L, "Glove");
+        index.put(4L, "Love");
+        index.put(5L, "Endless Love");
+        index.put(6L, "Nơi Này Có Anh");
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordThenSubstring() {
+        assertThat(index.search("love", 10)).containsExactly(4L, 2L, 1L, 5L, 3L);
+    }
+
+    @Test
+    void matchesOnlyNamesContainingTheWholeQuery() {
+        assertThat(index.search("ove sto", 10)).containsExactly(1L);
+        assertThat(index.search("voles", 10)).isEmpty();
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        assertThat(index.search("NOI NAY", 10)).containsExactly(6L);
+        assertThat(index.search("có anh", 10)).containsExactly(6L);
+    }
+
+    @Test
+    void appliesLimitToRankedResults() {
+        assertThat(index.search("love", 2)).containsExactly(4L, 2L);
+    }
+
+    @Test
+    void shortQueriesAreRankedLikeLongOnes() {
+        assertThat(index.search("gl", 10)).containsExactly(3L);
+        assertThat(index.search("lo", 10)).containsExactly(4L, 2L, 1L, 5L, 3L);
+        assertThat(index.search("e", 1)).containsExactly(5L);
+        assertThat(index.search("zz", 10)).isEmpty();
+    }
+
+    @Test
+    void shortQueryHitsStayBoundedAsTheCatalogGrows() {
+        TrigramIndex small = new TrigramIndex(2);
+        for (long id = 1; id <= 5_000; id++) {
+            small.put(id, "ab " + id);
+        }
+        // 13 single characters and 111 pairs occur, each keeping at most twice the limit,
+        // where unbounded sets would hold a hit per name for most of them.
+        assertThat(small.shortHitCount()).isLessThanOrEqualTo((13 + 111) * 4);
+
+        assertThat(small.search("ab", 2)).containsExactly(1L, 2L);
+        for (long id = 1; id <= 4; id++) {
+            small.remove(id);
+        }
+        assertThat(small.search("ab", 2)).containsExactly(5L, 6L);
+        small.put(7L, "ab");
+        assertThat(small.search("ab", 2)).containsExactly(7L, 5L);
+    }
+
+    @Test
+    void reflectsRenamesAndRemovals() {
+        index.put(3L, "Gloves Off");
+        index.remove(4L);
+
+        assertThat(index.search("love", 10)).containsExactly(2L, 1L, 5L, 3L);
+        assertThat(index.search("gloves", 10)).containsExactly(3L);
+        assertThat(index.search("lo", 10)).containsExactly(2L, 1L, 5L, 3L);
+        assertThat(index.size()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,134 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.cache.CatalogCache;
+import bui.dev.rhymcaffer.cache.NewReleases;
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.BulkImportResponse;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.popularity.Leaderboards;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({BulkImportService.class, ReferenceResolver.class, CatalogSearchIndex.class, CatalogCache.class, NewReleases.class,
+        Leaderboards.class, Markets.class, BulkImportServiceTest.Config.class})
+class BulkImportServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+    }
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void importsValidRowsAndReportsBadOnesByLine() {
+        Artist artist = Artist.builder()
+                .name("Existing artist")
+                .tracks(new HashSet<>())
+                .albums(new HashSet<>())
+                .followers(new HashSet<>())
+                .build();
+        entityManager.persist(artist);
+        entityManager.flush();
+
+        String body = String.join("\n",
+                "{\"name\":\"First track\",\"artistIds\":[" + artist.getId() + "]}",
+                "",
+                "{\"name\":\"\"}",
+                "not json",
+                "{\"name\":\"Orphan\",\"artistIds\":[999999]}",
+                "{\"name\":\"Second track\",\"durationMs\":1000}");
+
+        BaseResponse<BulkImportResponse> response = bulkImportService.importTracks(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        BulkImportResponse report = response.getData();
+        assertThat(response.isSuccess()).isFalse();
+        assertThat(report.getReceived()).isEqualTo(5);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors())
+                .extracting(BulkImportResponse.RowError::getLine)
+                .containsExactly(3L, 4L, 5L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tracks", Long.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM track_artists", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsReleaseDatesThatAreNotRealDays() {
+        String body = String.join("\n",
+                "{\"name\":\"Leap\",\"releaseDate\":\"2024-02-29\"}",
+                "{\"name\":\"Impossible\",\"releaseDate\":\"2021-02-30\"}",
+                "{\"name\":\"No month\",\"releaseDate\":\"2020-13\"}");
+
+        BulkImportResponse report = bulkImportService.importAlbums(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))).getData();
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors())
+                .extracting(BulkImportResponse.RowError::getLine)
+                .containsExactly(2L, 3L);
+    }
+
+    // Each retry commits on its own, so this test runs outside the test transaction and cleans up after itself.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rowsTheDatabaseRefusesAreRejectedWithoutTheirChunk() {
+        List<String> lines = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> "{\"name\":\"bulk artist " + i + "\"}")
+                .collect(Collectors.toList());
+        // Longer than the name column.
+        lines.set(6, "{\"name\":\"" + "x".repeat(300) + "\"}");
+        try {
+            BaseResponse<BulkImportResponse> response = bulkImportService.importArtists(
+                    new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)));
+
+            BulkImportResponse report = response.getData();
+            assertThat(report.getImported()).isEqualTo(9);
+            assertThat(report.getErrors())
+                    .extracting(BulkImportResponse.RowError::getLine)
+                    .containsExactly(7L);
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM artists WHERE name LIKE 'bulk artist %'", Long.class)).isEqualTo(9);
+        } finally {
+            jdbcTemplate.update("DELETE FROM artists WHERE name LIKE 'bulk artist %'");
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.cache.CatalogCache;
+import bui.dev.rhymcaffer.cache.NewReleases;
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.dto.response.AlbumResponse;
+import bui.dev.rhymcaffer.library.LibraryCache;
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.popularity.Leaderboards;
+import bui.dev.rhymcaffer.popularity.PopularityEngine;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// INSERT IGNORE is MySQL syntax, so H2 runs in MySQL mode here.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:join-writes;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TrackService.class, AlbumService.class, ReferenceResolver.class, CatalogSearchIndex.class, CatalogCache.class,
+        LibraryCache.class, PopularityEngine.class, Leaderboards.class, Markets.class, NewReleases.class})
+class JoinTableWriteTest {
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void savingATrackDoesNotLoadItsSavers() {
+        Track track = Track.builder()
+                .name("popular")
+                .artists(new HashSet<>())
+                .playlists(new HashSet<>())
+                .savedByUsers(new HashSet<>())
+                .build();
+        entityManager.persist(track);
+        for (int i = 0; i < 50; i++) {
+            User saver = user("saver" + i);
+            track.getSavedByUsers().add(saver);
+        }
+        User user = user("newcomer");
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(trackService.saveTrack(track.getId(), user.getId()).isSuccess()).isTrue();
+        assertThat(trackService.saveTrack(track.getId(), user.getId()).isSuccess()).isTrue();
+
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(savers(track.getId())).isEqualTo(51);
+        assertThat(saveEvents(track.getId())).isEqualTo(1);
+
+        assertThat(trackService.unsaveTrack(track.getId(), user.getId()).isSuccess()).isTrue();
+        assertThat(savers(track.getId())).isEqualTo(50);
+        assertThat(saveEvents(track.getId())).isZero();
+    }
+
+    @Test
+    void togglingASaveLeavesOneSaveEvent() {
+        Track track = Track.builder().name("toggled").build();
+        entityManager.persist(track);
+        User user = user("toggler");
+        entityManager.flush();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(trackService.saveTrack(track.getId(), user.getId()).isSuccess()).isTrue();
+            assertThat(trackService.unsaveTrack(track.getId(), user.getId()).isSuccess()).isTrue();
+        }
+        assertThat(trackService.saveTrack(track.getId(), user.getId()).isSuccess()).isTrue();
+
+        assertThat(saveEvents(track.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void savedContainsReadsTheJoinTable() {
+        Track saved = Track.builder().name("saved").build();
+        Track other = Track.builder().name("other").build();
+        entityManager.persist(saved);
+        entityManager.persist(other);
+        User user = user("listener");
+        entityManager.flush();
+
+        assertThat(trackService.saveTrack(saved.getId(), user.getId()).isSuccess()).isTrue();
+
+        assertThat(trackService.savedTracksContain(user.getId(), List.of(other.getId(), saved.getId())).getData())
+                .containsExactly(false, true);
+        assertThat(trackService.savedTracksContain(user.getId(), List.of()).getStatusCode()).isEqualTo(400);
+    }
+
+    @Test
+    void albumMultiGetDoesNotLoadFollowers() {
+        Album album = Album.builder().name("followed").followers(new HashSet<>()).build();
+        entityManager.persist(album);
+        for (int i = 0; i < 20; i++) {
+            album.getFollowers().add(user("follower" + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AlbumResponse response = albumService.getAlbums(List.of(album.getId())).getData().get(0);
+
+        assertThat(response.getFollowerIds()).isNull();
+        assertThat(statistics.getCollectionStatistics(Album.class.getName() + ".followers").getLoadCount()).isZero();
+    }
+
+    // The entity cache only serves sessions that start after the put, so this commits its own transactions.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void savingAnAlbumEvictsOnlyThatAlbumFromTheCache() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long saved = tx.execute(status -> album("cached saved"));
+        Long other = tx.execute(status -> album("cached other"));
+        Long userId = tx.execute(status -> user("album saver").getId());
+        try {
+            albumService.getAlbum(saved);
+            albumService.getAlbum(other);
+            Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+            assertThat(cache.containsEntity(Album.class, saved)).isTrue();
+            assertThat(cache.containsEntity(Album.class, other)).isTrue();
+
+            assertThat(albumService.saveAlbum(saved, userId).isSuccess()).isTrue();
+
+            assertThat(cache.containsEntity(Album.class, saved)).isFalse();
+            assertThat(cache.containsEntity(Album.class, other)).isTrue();
+            assertThat(albumService.getAlbum(saved).getData().getFollowerIds()).containsExactly(userId);
+        } finally {
+            jdbcTemplate.update("DELETE FROM album_followers WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM albums WHERE id IN (?, ?)", saved, other);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+    }
+
+    private Long album(String name) {
+        Album album = Album.builder().name(name).build();
+        entityManager.persist(album);
+        return album.getId();
+    }
+
+    private long saveEvents(Long trackId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM save_events WHERE track_id = ?", Long.class, trackId);
+    }
+
+    private long savers(Long trackId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_saved_tracks WHERE track_id = ?", Long.class, trackId);
+    }
+
+    private User user(String username) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
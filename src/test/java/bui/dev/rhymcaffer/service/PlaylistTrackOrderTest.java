@@ -0,0 +1,254 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.dto.request.PlaylistRequest;
+import bui.dev.rhymcaffer.dto.request.PlaylistTrackMoveRequest;
+import bui.dev.rhymcaffer.dto.request.PlaylistTracksRequest;
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.PlaylistResponse;
+import bui.dev.rhymcaffer.dto.response.PlaylistTrackResponse;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({PlaylistService.class, ReferenceResolver.class, CatalogSearchIndex.class})
+class PlaylistTrackOrderTest {
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private Track a;
+    private Track b;
+    private Track c;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder().username("owner").email("owner@example.com").password("secret").build();
+        entityManager.persist(owner);
+        a = track("a");
+        b = track("b");
+        c = track("c");
+    }
+
+    @Test
+    void keepsRequestOrderAndDuplicates() {
+        Long playlistId = playlist(List.of(a.getId(), b.getId(), a.getId()));
+
+        assertThat(names(playlistId)).containsExactly("a", "b", "a");
+        entityManager.clear();
+        assertThat(playlistService.getPlaylist(playlistId).getData().getTrackCount()).isEqualTo(3);
+    }
+
+    @Test
+    void insertsAndMovesBetweenNeighbours() {
+        Long playlistId = playlist(List.of(a.getId(), b.getId()));
+
+        playlistService.addTrackToPlaylist(playlistId, c.getId(), 1);
+        assertThat(names(playlistId)).containsExactly("a", "c", "b");
+
+        playlistService.addTrackToPlaylist(playlistId, c.getId(), 0);
+        assertThat(names(playlistId)).containsExactly("c", "a", "c", "b");
+
+        PlaylistTrackResponse first = entries(playlistId).get(0);
+        assertThat(playlistService.moveTrack(playlistId, move(first.getEntryId(), 3)).isSuccess()).isTrue();
+        assertThat(names(playlistId)).containsExactly("a", "c", "b", "c");
+        assertThat(entries(playlistId).get(3).getEntryId()).isEqualTo(first.getEntryId());
+    }
+
+    @Test
+    void movesAcrossARenumber() {
+        Long playlistId = playlist(List.of(a.getId(), b.getId(), c.getId()));
+        entityManager.flush();
+        // Colliding positions force positionsAt to renumber the playlist before placing the move.
+        entityManager.createQuery("UPDATE PlaylistTrack pt SET pt.position = 1").executeUpdate();
+        Long last = entries(playlistId).get(2).getEntryId();
+
+        assertThat(playlistService.moveTrack(playlistId, move(last, 1)).isSuccess()).isTrue();
+
+        assertThat(names(playlistId)).containsExactly("a", "c", "b");
+    }
+
+    @Test
+    void makesRoomWhenTheGapRunsOut() {
+        Long playlistId = playlist(List.of(a.getId(), b.getId()));
+
+        for (int i = 0; i < 15; i++) {
+            playlistService.addTrackToPlaylist(playlistId, c.getId(), 1);
+        }
+
+        List<String> names = names(playlistId);
+        assertThat(names).hasSize(17);
+        assertThat(names.get(0)).isEqualTo("a");
+        assertThat(names.get(16)).isEqualTo("b");
+    }
+
+    @Test
+    void addsAndRemovesTracksInBatches() {
+        Long playlistId = playlist(List.of(a.getId(), b.getId()));
+
+        assertThat(playlistService.addTracksToPlaylist(playlistId, batch(List.of(c.getId(), c.getId(), a.getId()), 1))
+                .isSuccess()).isTrue();
+        assertThat(names(playlistId)).containsExactly("a", "c", "c", "a", "b");
+
+        List<Long> many = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            many.add(b.getId());
+        }
+        playlistService.addTracksToPlaylist(playlistId, batch(many, 1));
+        List<String> names = names(playlistId);
+        assertThat(names).hasSize(45);
+        assertThat(names.subList(41, 45)).containsExactly("c", "c", "a", "b");
+
+        BaseResponse<Void> removed = playlistService.removeTracksFromPlaylist(
+                playlistId, batch(List.of(a.getId(), b.getId()), null));
+        assertThat(removed.getMessage()).startsWith("43 ");
+        assertThat(names(playlistId)).containsExactly("c", "c");
+    }
+
+    @Test
+    void rejectsTheWholeBatchWhenAnyTrackIsMissing() {
+        Long playlistId = playlist(List.of(a.getId()));
+
+        BaseResponse<Void> response = playlistService.addTracksToPlaylist(
+                playlistId, batch(List.of(b.getId(), -2L, -1L), null));
+
+        assertThat(response.getStatusCode()).isEqualTo(404);
+        assertThat(response.getMessage()).isEqualTo("Track not found with ids: [-2, -1]");
+        assertThat(names(playlistId)).containsExactly("a");
+    }
+
+    @Test
+    void failedUpdateRollsBackTheClearedEntries() {
+        Long playlistId = playlist(List.of(a.getId()));
+        PlaylistRequest request = new PlaylistRequest();
+        request.setName("renamed");
+        request.setTrackIds(List.of(b.getId(), -1L));
+
+        BaseResponse<Void> response = playlistService.updatePlaylist(playlistId, request, owner.getId());
+
+        assertThat(response.isSuccess()).isFalse();
+        assertThat(new TransactionTemplate(transactionManager).execute(TransactionStatus::isRollbackOnly)).isTrue();
+    }
+
+    @Test
+    void rejectsOversizedTrackLists() {
+        Long playlistId = playlist(List.of(a.getId()));
+        PlaylistRequest request = new PlaylistRequest();
+        request.setTrackIds(Collections.nCopies(501, b.getId()));
+
+        BaseResponse<Void> response = playlistService.updatePlaylist(playlistId, request, owner.getId());
+
+        assertThat(response.getStatusCode()).isEqualTo(400);
+        assertThat(names(playlistId)).containsExactly("a");
+    }
+
+    @Test
+    void failedMoveRollsBack() {
+        Long playlistId = playlist(List.of(a.getId()));
+
+        BaseResponse<Void> response = playlistService.moveTrack(playlistId, move(-1L, 0));
+
+        assertThat(response.getStatusCode()).isEqualTo(404);
+        assertThat(new TransactionTemplate(transactionManager).execute(TransactionStatus::isRollbackOnly)).isTrue();
+    }
+
+    @Test
+    void trackChangesBumpTheSnapshotAndFollowsDoNot() {
+        Long playlistId = playlist(List.of(a.getId()));
+        long created = snapshot(playlistId);
+
+        playlistService.addTrackToPlaylist(playlistId, b.getId(), null);
+        playlistService.addTracksToPlaylist(playlistId, batch(List.of(c.getId()), 0));
+        playlistService.removeTrackFromPlaylist(playlistId, c.getId());
+        playlistService.removeTrackFromPlaylist(playlistId, c.getId());
+        assertThat(snapshot(playlistId)).isEqualTo(created + 3);
+
+        entityManager.createNativeQuery("INSERT INTO playlist_followers (playlist_id, user_id) VALUES (?, ?)")
+                .setParameter(1, playlistId)
+                .setParameter(2, owner.getId())
+                .executeUpdate();
+        entityManager.clear();
+        PlaylistResponse response = playlistService.getPlaylist(playlistId).getData();
+        assertThat(response.getSnapshotId()).isEqualTo(created + 3);
+        assertThat(response.getFollowerCount()).isEqualTo(1);
+        assertThat(response.getTrackCount()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesByOffset() {
+        Long playlistId = playlist(List.of(a.getId(), b.getId(), c.getId(), a.getId(), b.getId()));
+
+        BaseResponse<List<PlaylistTrackResponse>> first = playlistService.getPlaylistTracks(playlistId, 0, 2);
+        BaseResponse<List<PlaylistTrackResponse>> last = playlistService.getPlaylistTracks(playlistId, 4, 2);
+
+        assertThat(first.getData()).extracting(PlaylistTrackResponse::getName).containsExactly("a", "b");
+        assertThat(first.getNextCursor()).isEqualTo("2");
+        assertThat(last.getData()).extracting(PlaylistTrackResponse::getName).containsExactly("b");
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    private Long playlist(List<Long> trackIds) {
+        PlaylistRequest request = new PlaylistRequest();
+        request.setName("mix");
+        request.setTrackIds(trackIds);
+        assertThat(playlistService.createPlaylist(request, owner.getId()).isSuccess()).isTrue();
+        return entityManager.createQuery("SELECT MAX(p.id) FROM Playlist p", Long.class).getSingleResult();
+    }
+
+    private long snapshot(Long playlistId) {
+        entityManager.flush();
+        entityManager.clear();
+        return playlistService.getPlaylist(playlistId).getData().getSnapshotId();
+    }
+
+    private List<PlaylistTrackResponse> entries(Long playlistId) {
+        entityManager.flush();
+        return playlistService.getPlaylistTracks(playlistId, 0, 200).getData();
+    }
+
+    private List<String> names(Long playlistId) {
+        return entries(playlistId).stream().map(PlaylistTrackResponse::getName).toList();
+    }
+
+    private static PlaylistTracksRequest batch(List<Long> trackIds, Integer index) {
+        PlaylistTracksRequest request = new PlaylistTracksRequest();
+        request.setTrackIds(trackIds);
+        request.setIndex(index);
+        return request;
+    }
+
+    private static PlaylistTrackMoveRequest move(Long entryId, int toIndex) {
+        PlaylistTrackMoveRequest request = new PlaylistTrackMoveRequest();
+        request.setEntryId(entryId);
+        request.setToIndex(toIndex);
+        return request;
+    }
+
+    private Track track(String name) {
+        Track track = Track.builder().name(name).build();
+        entityManager.persist(track);
+        return track;
+    }
+}
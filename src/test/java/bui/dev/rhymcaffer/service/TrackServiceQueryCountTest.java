@@ -0,0 +1,235 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.cache.CatalogCache;
+import bui.dev.rhymcaffer.charts.Markets;
+import bui.dev.rhymcaffer.dto.request.TrackRequest;
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.TrackListResponse;
+import bui.dev.rhymcaffer.dto.response.TrackResponse;
+import bui.dev.rhymcaffer.library.LibraryCache;
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.popularity.Leaderboards;
+import bui.dev.rhymcaffer.popularity.PopularityEngine;
+import bui.dev.rhymcaffer.search.CatalogSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({TrackService.class, ReferenceResolver.class, CatalogSearchIndex.class, CatalogCache.class, LibraryCache.class,
+        PopularityEngine.class, Leaderboards.class, Markets.class})
+class TrackServiceQueryCountTest {
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private CatalogSearchIndex searchIndex;
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void trackListsUseTheSameNumberOfStatementsRegardlessOfSize() {
+        Fixture small = createFixture("small", 2);
+        Fixture large = createFixture("large", 25);
+        searchIndex.rebuild();
+        leaderboards.reload();
+
+        assertConstant(
+                () -> trackService.getTracksByArtist(small.artistId()),
+                () -> trackService.getTracksByArtist(large.artistId()), 2, 25);
+        assertConstant(
+                () -> trackService.getTracksByAlbum(small.albumId()),
+                () -> trackService.getTracksByAlbum(large.albumId()), 2, 25);
+        assertConstant(
+                () -> trackService.getSavedTracks(small.userId()),
+                () -> trackService.getSavedTracks(large.userId()), 2, 25);
+        assertConstant(
+                () -> trackService.searchTracks("small", 50),
+                () -> trackService.searchTracks("large", 50), 2, 25);
+        assertConstant(
+                () -> trackService.getPopularTracks(null, null, 2),
+                () -> trackService.getPopularTracks(null, null, 27), 2, 27);
+
+        BaseResponse<List<TrackResponse>> malformed = trackService.getPopularTracks(null, "top", 2);
+        assertThat(malformed.getStatusCode()).isEqualTo(400);
+        assertThat(malformed.getMessage()).isEqualTo("Invalid cursor: top");
+    }
+
+    @Test
+    void multiGetKeepsRequestOrderAndReportsMissingIds() {
+        Fixture small = createFixture("few", 2);
+        Fixture large = createFixture("many", 25);
+        List<Long> smallIds = trackIds(small);
+        List<Long> largeIds = trackIds(large);
+
+        assertConstant(
+                () -> trackService.getTracks(smallIds),
+                () -> trackService.getTracks(largeIds), 2, 25);
+
+        BaseResponse<List<TrackResponse>> mixed = trackService.getTracks(
+                List.of(largeIds.get(3), -1L, smallIds.get(0)));
+        assertThat(mixed.getData()).extracting(track -> track == null ? null : track.getId())
+                .containsExactly(largeIds.get(3), null, smallIds.get(0));
+        assertThat(mixed.getMessage()).isEqualTo("Track not found with ids: [-1]");
+        assertThat(trackService.getTracks(LongStream.rangeClosed(1, 101).boxed().toList()).getStatusCode())
+                .isEqualTo(400);
+    }
+
+    @Test
+    void filteringByArtistStillReturnsEveryArtistOfTheTrack() {
+        Fixture fixture = createFixture("collab", 1);
+        clear();
+
+        List<TrackResponse> tracks = trackService.getTracksByArtist(fixture.artistId()).getData();
+
+        assertThat(tracks).hasSize(1);
+        assertThat(tracks.get(0).getArtists()).hasSize(2);
+    }
+
+    @Test
+    void createTrackResolvesAllArtistsInOneQueryAndReportsEveryMissingId() {
+        Artist first = persist(artist("resolver one"));
+        Artist second = persist(artist("resolver two"));
+        clear();
+
+        TrackRequest request = new TrackRequest();
+        request.setName("resolver track");
+        request.setArtistIds(Set.of(first.getId(), second.getId(), -1L, -2L));
+        BaseResponse<Void> missing = trackService.createTrack(request);
+
+        assertThat(missing.isSuccess()).isFalse();
+        assertThat(missing.getMessage()).isEqualTo("Artist not found with ids: [-2, -1]");
+
+        request.setArtistIds(Set.of(first.getId(), second.getId()));
+        Statistics statistics = statistics();
+        statistics.clear();
+        assertThat(trackService.createTrack(request).isSuccess()).isTrue();
+        // one IN query for the artists plus the identity insert of the track
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void trackListPageIsProjectedWithoutLoadingEntities() {
+        Fixture fixture = createFixture("paged", 2);
+        Track single = persist(Track.builder()
+                .name("no album")
+                .artists(new HashSet<>())
+                .playlists(new HashSet<>())
+                .savedByUsers(new HashSet<>())
+                .build());
+        clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        List<TrackListResponse> page = trackService.getAllTracks(null, 50).getData();
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(page).extracting(TrackListResponse::getAlbumId)
+                .containsExactly(fixture.albumId(), fixture.albumId(), null);
+        assertThat(page.get(2).getId()).isEqualTo(single.getId());
+    }
+
+    private void assertConstant(Supplier<BaseResponse<List<TrackResponse>>> smallCall,
+            Supplier<BaseResponse<List<TrackResponse>>> largeCall, int smallSize, int largeSize) {
+        long smallCount = countStatements(smallCall, smallSize);
+        long largeCount = countStatements(largeCall, largeSize);
+        assertThat(largeCount).isEqualTo(smallCount);
+    }
+
+    private long countStatements(Supplier<BaseResponse<List<TrackResponse>>> call, int expectedSize) {
+        clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        BaseResponse<List<TrackResponse>> response = call.get();
+
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getData()).hasSize(expectedSize);
+        response.getData().forEach(track -> assertThat(track.getArtists()).hasSize(2));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Long> trackIds(Fixture fixture) {
+        return trackService.getTracksByAlbum(fixture.albumId()).getData().stream()
+                .map(TrackResponse::getId)
+                .sorted()
+                .toList();
+    }
+
+    private Fixture createFixture(String prefix, int trackCount) {
+        User user = persist(User.builder()
+                .username(prefix + "-user")
+                .email(prefix + "@example.com")
+                .password("secret")
+                .build());
+        Artist mainArtist = persist(artist(prefix + " main artist"));
+        Album album = persist(Album.builder()
+                .name(prefix + " album")
+                .artists(new HashSet<>(Set.of(mainArtist)))
+                .tracks(new HashSet<>())
+                .followers(new HashSet<>())
+                .build());
+        for (int i = 0; i < trackCount; i++) {
+            Artist featured = persist(artist(prefix + " featured " + i));
+            persist(Track.builder()
+                    .name(prefix + " track " + i)
+                    .popularity("small".equals(prefix) ? 99 : 92)
+                    .album(album)
+                    .artists(new HashSet<>(Set.of(mainArtist, featured)))
+                    .savedByUsers(new HashSet<>(Set.of(user)))
+                    .playlists(new HashSet<>())
+                    .build());
+        }
+        entityManager.flush();
+        return new Fixture(mainArtist.getId(), album.getId(), user.getId());
+    }
+
+    private Artist artist(String name) {
+        return Artist.builder()
+                .name(name)
+                .tracks(new HashSet<>())
+                .albums(new HashSet<>())
+                .followers(new HashSet<>())
+                .build();
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private void clear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private record Fixture(Long artistId, Long albumId, Long userId) {
+    }
+}
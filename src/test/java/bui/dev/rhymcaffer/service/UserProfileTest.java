@@ -0,0 +1,141 @@
+package bui.dev.rhymcaffer.service;
+
+import bui.dev.rhymcaffer.dto.response.BaseResponse;
+import bui.dev.rhymcaffer.dto.response.UserCardResponse;
+import bui.dev.rhymcaffer.dto.response.UserResponse;
+import bui.dev.rhymcaffer.library.LibraryCache;
+import bui.dev.rhymcaffer.model.Playlist;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.model.User;
+import bui.dev.rhymcaffer.social.FollowGraphIndex;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({UserService.class, LibraryCache.class, FollowGraphIndex.class, UserProfileTest.Config.class})
+class UserProfileTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void profileCarriesCountsWithoutLoadingCollections() {
+        User star = user("star");
+        List<User> fans = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            fans.add(user("fan" + i));
+        }
+        User idol = user("idol");
+        Track track = Track.builder().name("hit").build();
+        entityManager.persist(track);
+        entityManager.persist(Playlist.builder().name("mix").owner(star).build());
+        entityManager.flush();
+        fans.forEach(fan -> jdbcTemplate.update(
+                "INSERT INTO user_followers (following_id, follower_id) VALUES (?, ?)", star.getId(), fan.getId()));
+        jdbcTemplate.update("INSERT INTO user_followers (following_id, follower_id) VALUES (?, ?)",
+                idol.getId(), star.getId());
+        jdbcTemplate.update("INSERT INTO user_saved_tracks (track_id, user_id) VALUES (?, ?)",
+                track.getId(), star.getId());
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserResponse profile = userService.getUser(star.getId()).getData();
+
+        assertThat(profile.getFollowerCount()).isEqualTo(30);
+        assertThat(profile.getFollowingCount()).isEqualTo(1);
+        assertThat(profile.getPlaylistCount()).isEqualTo(1);
+        assertThat(profile.getSavedTrackCount()).isEqualTo(1);
+        assertThat(profile.getSavedAlbumCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        BaseResponse<List<Long>> first = userService.getIds(star.getId(), "followers", null, 20);
+        assertThat(first.getData()).hasSize(20);
+        BaseResponse<List<Long>> second = userService.getIds(
+                star.getId(), "followers", Long.valueOf(first.getNextCursor()), 20);
+        assertThat(second.getData()).hasSize(10);
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getData().get(9)).isEqualTo(fans.get(29).getId());
+
+        assertThat(userService.getIds(star.getId(), "following", null, 20).getData())
+                .containsExactly(idol.getId());
+        assertThat(userService.getIds(star.getId(), "everything", null, 20).getStatusCode()).isEqualTo(400);
+    }
+
+    @Test
+    void followerCardsPageOverTheJoinTable() {
+        User star = user("celebrity");
+        List<User> fans = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            fans.add(user("follower" + i));
+        }
+        entityManager.flush();
+        fans.forEach(fan -> jdbcTemplate.update(
+                "INSERT INTO user_followers (following_id, follower_id) VALUES (?, ?)", star.getId(), fan.getId()));
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BaseResponse<List<UserCardResponse>> first = userService.getFollowers(star.getId(), null, 3);
+        BaseResponse<List<UserCardResponse>> second = userService.getFollowers(
+                star.getId(), Long.valueOf(first.getNextCursor()), 3);
+
+        assertThat(first.getData()).extracting(UserCardResponse::getUsername)
+                .containsExactly("follower0", "follower1", "follower2");
+        assertThat(second.getData()).extracting(UserCardResponse::getUsername)
+                .containsExactly("follower3", "follower4");
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        assertThat(userService.getFollowing(fans.get(0).getId(), null, 10).getData())
+                .extracting(UserCardResponse::getId)
+                .containsExactly(star.getId());
+    }
+
+    private User user(String username) {
+        User user = User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
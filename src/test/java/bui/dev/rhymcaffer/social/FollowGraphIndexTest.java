@@ -0,0 +1,46 @@
+package bui.dev.rhymcaffer.social;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FollowGraphIndexTest {
+
+    @Test
+    void keepsEdgesThatChangeWhileTheGraphLoads() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        FollowGraphIndex index = new FollowGraphIndex(jdbcTemplate);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            // Committed after the SELECT started: 1 and 3 follow each other, 2 stops following 1.
+            index.followed(1L, 3L);
+            index.followed(3L, 1L);
+            index.unfollowed(2L, 1L);
+            handler.processRow(row(1L, 2L));
+            handler.processRow(row(2L, 1L));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        index.rebuild();
+
+        assertThat(index.mutuals(1L, 0, 10)).containsExactly(3L);
+        index.followed(2L, 1L);
+        assertThat(index.mutuals(1L, 0, 10)).containsExactly(2L, 3L);
+    }
+
+    private static ResultSet row(long followerId, long userId) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(followerId);
+        when(row.getLong(2)).thenReturn(userId);
+        return row;
+    }
+}
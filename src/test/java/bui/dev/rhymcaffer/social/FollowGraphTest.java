@@ -0,0 +1,69 @@
+package bui.dev.rhymcaffer.social;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FollowGraphTest {
+
+    private FollowGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        FollowGraph.Loader loader = new FollowGraph.Loader();
+        // 1 and 2, 1 and 3, 1 and 5 follow each other; 4 follows 1 one-way.
+        loader.add(1, 5);
+        loader.add(5, 1);
+        loader.add(1, 2);
+        loader.add(2, 1);
+        loader.add(3, 1);
+        loader.add(1, 3);
+        loader.add(4, 1);
+        // Beyond 1 itself, 1's friends follow 6 (two of them) and 7 (one).
+        loader.add(2, 6);
+        loader.add(3, 6);
+        loader.add(3, 7);
+        graph = new FollowGraph();
+        graph.load(loader);
+    }
+
+    @Test
+    void mutualsAreTheIntersectionInIdOrder() {
+        assertThat(graph.mutuals(1, 0, 10)).containsExactly(2L, 3L, 5L);
+        assertThat(graph.mutuals(1, 2, 10)).containsExactly(3L, 5L);
+        assertThat(graph.mutuals(1, 0, 2)).containsExactly(2L, 3L);
+        assertThat(graph.mutuals(4, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void suggestionsRankTwoHopAccountsByHowManyFriendsFollowThem() {
+        assertThat(graph.suggestions(1, 10, 1_000)).containsExactly(6L, 7L);
+
+        graph.follow(1, 6);
+
+        assertThat(graph.suggestions(1, 10, 1_000)).containsExactly(7L);
+    }
+
+    @Test
+    void followAndUnfollowKeepBothDirectionsSorted() {
+        graph.follow(4, 0);
+        graph.follow(4, 9);
+        graph.follow(4, 9);
+        graph.unfollow(4, 1);
+
+        assertThat(graph.following(4)).containsExactly(0L, 9L);
+        assertThat(graph.followers(1)).containsExactly(2L, 3L, 5L);
+        assertThat(graph.followers(9)).containsExactly(4L);
+    }
+
+    @Test
+    void removingAUserDropsEveryEdgeTouchingIt() {
+        graph.removeUser(1);
+
+        assertThat(graph.following(1)).isEmpty();
+        assertThat(graph.followers(1)).isEmpty();
+        assertThat(graph.following(2)).containsExactly(6L);
+        assertThat(graph.followers(5)).isEmpty();
+    }
+}
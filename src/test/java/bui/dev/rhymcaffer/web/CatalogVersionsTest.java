@@ -0,0 +1,110 @@
+package bui.dev.rhymcaffer.web;
+
+import bui.dev.rhymcaffer.model.Album;
+import bui.dev.rhymcaffer.model.Artist;
+import bui.dev.rhymcaffer.model.Track;
+import bui.dev.rhymcaffer.repository.AlbumRepository;
+import bui.dev.rhymcaffer.repository.TrackRepository;
+import bui.dev.rhymcaffer.web.CatalogVersions.Resource;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(CatalogVersions.class)
+class CatalogVersionsTest {
+
+    @Autowired
+    private CatalogVersions versions;
+
+    @Autowired
+    private TrackRepository trackRepository;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Artist artist;
+    private Album album;
+    private Track track;
+
+    @BeforeEach
+    void setUp() {
+        artist = Artist.builder().name("artist").build();
+        entityManager.persist(artist);
+        album = Album.builder().name("album").artists(new HashSet<>(Set.of(artist))).build();
+        entityManager.persist(album);
+        track = Track.builder().name("track").album(album).artists(new HashSet<>(Set.of(artist))).build();
+        entityManager.persist(track);
+        entityManager.flush();
+    }
+
+    @Test
+    void trackTagFollowsItsEmbeddedArtists() {
+        String before = etag(Resource.TRACK, track.getId());
+
+        artist.setName("renamed");
+        entityManager.flush();
+
+        assertThat(etag(Resource.TRACK, track.getId())).isNotEqualTo(before);
+        assertThat(etag(Resource.TRACK, track.getId())).isEqualTo(etag(Resource.TRACK, track.getId()));
+    }
+
+    @Test
+    void albumTagMovesWithItsTrackListAndFollowers() {
+        String initial = etag(Resource.ALBUM, album.getId());
+
+        trackRepository.clearAlbum(track.getId(), album.getId());
+        String withoutTrack = etag(Resource.ALBUM, album.getId());
+        albumRepository.bumpVersion(album.getId());
+        String followed = etag(Resource.ALBUM, album.getId());
+
+        assertThat(withoutTrack).isNotEqualTo(initial);
+        assertThat(followed).isNotEqualTo(withoutTrack);
+    }
+
+    @Test
+    void albumTagMovesWhenATrackIsSwappedForAnotherAtTheSameVersion() {
+        Track other = Track.builder().name("other").artists(new HashSet<>(Set.of(artist))).build();
+        entityManager.persist(other);
+        entityManager.flush();
+        CatalogVersions.Validator before = versions.lookup(Resource.ALBUM, album.getId()).orElseThrow();
+
+        // Same count and same version total as before; only the member ids differ.
+        entityManager.createNativeQuery("UPDATE tracks SET album_id = CASE WHEN id = :other THEN :album END "
+                        + "WHERE id IN (:track, :other)")
+                .setParameter("other", other.getId())
+                .setParameter("album", album.getId())
+                .setParameter("track", track.getId())
+                .executeUpdate();
+
+        assertThat(etag(Resource.ALBUM, album.getId())).isNotEqualTo(before.etag());
+        // A removed track leaves no timestamp behind, so strong tags do not offer one.
+        assertThat(before.lastModified()).isEqualTo(-1);
+    }
+
+    @Test
+    void artistTagCoversExpandedTracksAndAlbums() {
+        String before = etag(Resource.ARTIST, artist.getId());
+
+        album.setName("renamed");
+        entityManager.flush();
+
+        assertThat(etag(Resource.ARTIST, artist.getId())).isNotEqualTo(before);
+        assertThat(versions.lookup(Resource.ARTIST, -1L)).isEmpty();
+    }
+
+    private String etag(Resource resource, Long id) {
+        return versions.lookup(resource, id).orElseThrow().etag();
+    }
+}
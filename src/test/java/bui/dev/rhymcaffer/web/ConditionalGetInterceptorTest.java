@@ -0,0 +1,88 @@
+package bui.dev.rhymcaffer.web;
+
+import bui.dev.rhymcaffer.web.CatalogVersions.Resource;
+import bui.dev.rhymcaffer.web.CatalogVersions.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConditionalGetInterceptorTest {
+
+    static class Handlers {
+        @ConditionalGet(Resource.TRACK)
+        public void track() {
+        }
+
+        @ConditionalGet(Resource.PLAYLIST)
+        public void playlist() {
+        }
+    }
+
+    private ConditionalGetInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        CatalogVersions versions = mock(CatalogVersions.class);
+        when(versions.lookup(Resource.TRACK, 7L)).thenReturn(Optional.of(new Validator("\"3-5\"", 1_000_000L)));
+        when(versions.lookup(Resource.PLAYLIST, 7L)).thenReturn(Optional.of(new Validator("W/\"9\"", -1)));
+        when(versions.lookup(Resource.TRACK, 8L)).thenReturn(Optional.empty());
+        interceptor = new ConditionalGetInterceptor(versions, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void answersAMatchingTagWith304() throws Exception {
+        MockHttpServletRequest request = get("7");
+        request.addHeader("If-None-Match", "\"3-5\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, handler("track"))).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("max-age=60, public");
+    }
+
+    @Test
+    void letsStaleAndUnknownRequestsThroughWithValidators() throws Exception {
+        MockHttpServletRequest stale = get("7");
+        stale.addHeader("If-None-Match", "\"3-4\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(stale, response, handler("track"))).isTrue();
+        assertThat(response.getHeader("ETag")).isEqualTo("\"3-5\"");
+        assertThat(response.getDateHeader("Last-Modified")).isEqualTo(1_000_000L);
+
+        MockHttpServletResponse unknown = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get("8"), unknown, handler("track"))).isTrue();
+        assertThat(unknown.getHeader("Cache-Control")).isNull();
+    }
+
+    @Test
+    void keepsPlaylistsOutOfSharedCaches() throws Exception {
+        MockHttpServletRequest request = get("7");
+        request.addHeader("If-None-Match", "W/\"9\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, handler("playlist"))).isFalse();
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache, private");
+    }
+
+    private static MockHttpServletRequest get(String id) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tracks/" + id);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", id));
+        return request;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+}